@@ -0,0 +1,260 @@
+package io.github.wistefan.mapping;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Factory for functional accessors of constructors, getter and setter methods. If {@link MappingAccessors} were
+ * generated for the mapped class, their functions are used. Otherwise, the accessors are spun through the
+ * {@link LambdaMetafactory}, so that invoking them costs about the same as a direct call. If the method cannot be
+ * accessed that way(f.e. because the declaring class lives in a module that is not opened to the mapper), the accessor
+ * falls back to {@link Method#invoke(Object, Object...)}.
+ */
+@Slf4j
+final class Accessors {
+
+	private static final ClassValue<Optional<MappingAccessors<Object>>> GENERATED_ACCESSORS = new ClassValue<>() {
+		@Override
+		protected Optional<MappingAccessors<Object>> computeValue(Class<?> type) {
+			return loadGeneratedAccessors(type);
+		}
+	};
+
+	private Accessors() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Create the accessor for the String id constructor of the given class, empty if it does not declare one.
+	 */
+	static Optional<IdConstructor> idConstructor(Class<?> mappedClass) {
+		Optional<Function<String, Object>> generatedConstructor = GENERATED_ACCESSORS.get(mappedClass)
+				.flatMap(MappingAccessors::getIdConstructor);
+		if (generatedConstructor.isPresent()) {
+			return Optional.of(new IdConstructor(mappedClass, generatedConstructor.get()));
+		}
+		try {
+			Constructor<?> constructor = mappedClass.getDeclaredConstructor(String.class);
+			return Optional.of(new IdConstructor(mappedClass, constructorFunction(constructor)));
+		} catch (NoSuchMethodException e) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Create the getter accessor for the given method of the mapped class. The method has to be an instance method
+	 * without parameters.
+	 */
+	static Getter getter(Class<?> mappedClass, Method method) {
+		Function<Object, Object> generatedGetter = GENERATED_ACCESSORS.get(mappedClass)
+				.map(accessors -> accessors.getGetters().get(method.getName()))
+				.orElse(null);
+		if (generatedGetter != null) {
+			return new Getter(method, generatedGetter);
+		}
+		return new Getter(method, getterFunction(method));
+	}
+
+	/**
+	 * Create the setter accessor for the given method of the mapped class. The method has to be an instance method
+	 * with exactly one parameter.
+	 */
+	static Setter setter(Class<?> mappedClass, Method method) {
+		BiConsumer<Object, Object> generatedSetter = GENERATED_ACCESSORS.get(mappedClass)
+				.map(accessors -> accessors.getSetters().get(method.getName()))
+				.orElse(null);
+		if (generatedSetter != null) {
+			return new Setter(method, generatedSetter);
+		}
+		return new Setter(method, setterConsumer(method));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Optional<MappingAccessors<Object>> loadGeneratedAccessors(Class<?> mappedClass) {
+		String accessorsClassName = mappedClass.getName() + MappingAccessors.CLASS_NAME_SUFFIX;
+		try {
+			Class<?> accessorsClass = Class.forName(accessorsClassName, true, mappedClass.getClassLoader());
+			if (!MappingAccessors.class.isAssignableFrom(accessorsClass)) {
+				log.warn("The class {} does not implement {}, fall back to reflection.", accessorsClassName, MappingAccessors.class.getName());
+				return Optional.empty();
+			}
+			return Optional.of((MappingAccessors<Object>) accessorsClass.getDeclaredConstructor().newInstance());
+		} catch (ClassNotFoundException e) {
+			return Optional.empty();
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			log.warn("Was not able to load the generated accessors {}, fall back to reflection.", accessorsClassName, e);
+			return Optional.empty();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<String, Object> constructorFunction(Constructor<?> constructor) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(constructor.getDeclaringClass(), MethodHandles.lookup());
+			MethodHandle methodHandle = lookup.unreflectConstructor(constructor);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup,
+					"apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					methodHandle,
+					methodHandle.type());
+			return (Function<String, Object>) callSite.getTarget().invoke();
+		} catch (Throwable e) {
+			log.debug("Was not able to create a lambda constructor for {}, fall back to reflection.", constructor, e);
+			return id -> {
+				try {
+					return constructor.newInstance(id);
+				} catch (ReflectiveOperationException e1) {
+					throw new MappingException(String.format("Was not able to invoke constructor %s.", constructor), e1);
+				}
+			};
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> getterFunction(Method method) {
+		if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+			return reflectiveGetter(method);
+		}
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+			MethodHandle methodHandle = lookup.unreflect(method);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup,
+					"apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					methodHandle,
+					methodHandle.type().wrap());
+			return (Function<Object, Object>) callSite.getTarget().invoke();
+		} catch (Throwable e) {
+			log.debug("Was not able to create a lambda getter for {}, fall back to reflection.", method, e);
+			return reflectiveGetter(method);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> setterConsumer(Method method) {
+		if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1) {
+			return reflectiveSetter(method);
+		}
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+			MethodHandle methodHandle = lookup.unreflect(method);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup,
+					"accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class),
+					methodHandle,
+					// return values of fluent setters are dropped
+					MethodType.methodType(void.class, methodHandle.type().wrap().parameterArray()));
+			return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+		} catch (Throwable e) {
+			log.debug("Was not able to create a lambda setter for {}, fall back to reflection.", method, e);
+			return reflectiveSetter(method);
+		}
+	}
+
+	private static Function<Object, Object> reflectiveGetter(Method method) {
+		return source -> {
+			try {
+				return method.invoke(source);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new MappingException(String.format("Was not able to invoke method %s.", method.getName()), e);
+			}
+		};
+	}
+
+	private static BiConsumer<Object, Object> reflectiveSetter(Method method) {
+		return (target, value) -> {
+			try {
+				method.invoke(target, value);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new MappingException(String.format("Was not able to invoke method %s.", method.getName()), e);
+			}
+		};
+	}
+
+	/**
+	 * Accessor of the String id constructor.
+	 *
+	 * @param mappedClass class to be constructed
+	 * @param function    function creating a new instance from the id
+	 */
+	record IdConstructor(Class<?> mappedClass, Function<String, Object> function) {
+
+		/**
+		 * Create a new instance with the given id. Every exception thrown by the constructor is reported as
+		 * {@link InvocationTargetException}, just as {@link Constructor#newInstance(Object...)} would do. Failures of the
+		 * reflective fallback are already reported as {@link MappingException} and thrown as they are.
+		 */
+		Object newInstance(String id) throws InvocationTargetException {
+			try {
+				return function.apply(id);
+			} catch (MappingException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+
+	/**
+	 * Accessor of a getter method.
+	 *
+	 * @param method   the getter method
+	 * @param function function invoking the method on the object it is applied to
+	 */
+	record Getter(Method method, Function<Object, Object> function) {
+
+		/**
+		 * Get the value from the given source object. Every exception thrown by the getter is reported as
+		 * {@link InvocationTargetException}, just as {@link Method#invoke(Object, Object...)} would do. Failures of the
+		 * reflective fallback are already reported as {@link MappingException} and thrown as they are.
+		 */
+		Object get(Object source) throws InvocationTargetException {
+			try {
+				return function.apply(source);
+			} catch (MappingException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+
+	/**
+	 * Accessor of a setter method.
+	 *
+	 * @param method   the setter method
+	 * @param consumer consumer invoking the method on the object it is applied to
+	 */
+	record Setter(Method method, BiConsumer<Object, Object> consumer) {
+
+		/**
+		 * Set the value on the given target object. Every exception thrown by the setter is reported as
+		 * {@link InvocationTargetException}, just as {@link Method#invoke(Object, Object...)} would do. Failures of the
+		 * reflective fallback are already reported as {@link MappingException} and thrown as they are.
+		 */
+		void set(Object target, Object value) throws InvocationTargetException {
+			try {
+				consumer.accept(target, value);
+			} catch (MappingException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+}
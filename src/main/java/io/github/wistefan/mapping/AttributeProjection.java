@@ -0,0 +1,94 @@
+package io.github.wistefan.mapping;
+
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Projection of the attributes, that are required to map an entity into a certain class. Can be used as {@code attrs}
+ * parameter when querying or retrieving entities, to not transfer attributes that are not mapped anyways. If
+ * {@link MappingProperties#isProjectAttributes()} is enabled, the {@link EntityVOMapper} requests related entities with
+ * the projection of their target class, level by level.
+ * <p>
+ * The projection contains the target names of all {@link AttributeSetter}s of the class. It is empty(e.g. all
+ * attributes are required) if the class receives unmapped properties. Projections are created once per class.
+ */
+public final class AttributeProjection {
+
+	private static final ClassValue<List<String>> PROJECTIONS = new ClassValue<>() {
+		@Override
+		protected List<String> computeValue(Class<?> type) {
+			SetterMappingPlan mappingPlan = SetterMappingPlan.forClass(type);
+			if (mappingPlan.getUnmappedPropertiesSetter().isPresent()) {
+				return List.of();
+			}
+			return mappingPlan.getSetters()
+					.stream()
+					.map(setterEntry -> setterEntry.annotation().targetName())
+					.distinct()
+					.toList();
+		}
+	};
+
+	private AttributeProjection() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Get the attributes required to map an entity into the given class.
+	 *
+	 * @param targetClass class to map the entity into
+	 * @return the attribute names, empty if all attributes are required
+	 */
+	public static List<String> forClass(Class<?> targetClass) {
+		return PROJECTIONS.get(targetClass);
+	}
+
+	/**
+	 * Get the attributes required to map an entity into the given class, as comma-separated {@code attrs} parameter.
+	 *
+	 * @param targetClass class to map the entity into
+	 * @return the parameter, null if all attributes are required
+	 */
+	public static String toAttrsParameter(Class<?> targetClass) {
+		List<String> attrs = forClass(targetClass);
+		return attrs.isEmpty() ? null : String.join(",", attrs);
+	}
+
+	/**
+	 * Union of the given projections, empty if one of them requires all attributes.
+	 */
+	static List<String> union(Collection<? extends Collection<String>> projections) {
+		Set<String> attrs = new LinkedHashSet<>();
+		for (Collection<String> projection : projections) {
+			if (projection.isEmpty()) {
+				return List.of();
+			}
+			attrs.addAll(projection);
+		}
+		return List.copyOf(attrs);
+	}
+
+	/**
+	 * Does an entity, retrieved with the given projection, contain all required attributes?
+	 */
+	static boolean covers(Collection<String> retrieved, Collection<String> required) {
+		return retrieved.isEmpty() || (!required.isEmpty() && retrieved.containsAll(required));
+	}
+
+	/**
+	 * Key of an entity retrieved with the given projection, independent of the order of the attributes. Entities
+	 * retrieved with all attributes are keyed by their id.
+	 */
+	static String key(URI entityId, Collection<String> attrs) {
+		if (attrs.isEmpty()) {
+			return entityId.toString();
+		}
+		return entityId + "?attrs=" + String.join(",", new TreeSet<>(attrs));
+	}
+}
@@ -0,0 +1,38 @@
+package io.github.wistefan.mapping;
+
+import org.fiware.ngsi.model.EntityVO;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Exception to be thrown in case the mapping of some elements of a bulk fails. Contains the error for every failed
+ * element by its index, and the results of all other elements.
+ */
+public class BulkMappingException extends MappingException {
+
+	private final transient List<EntityVO> entityVOs;
+	private final SortedMap<Integer, RuntimeException> errors;
+
+	public BulkMappingException(List<EntityVO> entityVOs, SortedMap<Integer, RuntimeException> errors) {
+		super(String.format("Was not able to map %s of %s entities, first failure at index %s.", errors.size(),
+				entityVOs.size(), errors.firstKey()), errors.get(errors.firstKey()));
+		this.entityVOs = Collections.unmodifiableList(entityVOs);
+		this.errors = Collections.unmodifiableSortedMap(errors);
+	}
+
+	/**
+	 * Results in order of the input, null for the failed elements.
+	 */
+	public List<EntityVO> getEntityVOs() {
+		return entityVOs;
+	}
+
+	/**
+	 * Errors by the index of the failed element.
+	 */
+	public SortedMap<Integer, RuntimeException> getErrors() {
+		return errors;
+	}
+}
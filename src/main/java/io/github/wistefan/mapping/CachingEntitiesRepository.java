@@ -0,0 +1,211 @@
+package io.github.wistefan.mapping;
+
+import lombok.extern.slf4j.Slf4j;
+import org.fiware.ngsi.model.EntityVO;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link EntitiesRepository} caching the entities retrieved from a delegate. The cache is bounded by the number of
+ * entities and evicts the least recently used ones first. Entries expire after the configured time-to-live. If a
+ * max-staleness is configured, entries of entities providing their {@code modifiedAt} expire based on how long the
+ * entity was unchanged before it was retrieved(the freshness factor of that time, by default 10%, but not longer than
+ * the max-staleness), so that frequently changing entities are refreshed earlier. Entities modified after their
+ * retrieval(f.e. due to clock skew) expire after the ttl. Only the entities missing in the cache are requested from the
+ * delegate.
+ * <p>
+ * Entities retrieved with a projection are cached separately per projection, so that they are never returned for
+ * requests requiring other attributes. Projected requests are served by entities cached with all attributes as well.
+ * Every projection of an entity counts as a separate entry.
+ */
+@Slf4j
+public class CachingEntitiesRepository implements EntitiesRepository {
+
+	/**
+	 * Default share of the time an entity was unchanged, that it is considered fresh after retrieval.
+	 */
+	public static final double DEFAULT_FRESHNESS_FACTOR = 0.1;
+
+	private final EntitiesRepository delegate;
+	private final int maxSize;
+	private final Duration ttl;
+	private final Duration maxStaleness;
+	private final double freshnessFactor;
+	private final Clock clock;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Entries in access order, e.g. the least recently used one first.
+	 */
+	private final LinkedHashMap<String, CacheEntry> cache;
+
+	public CachingEntitiesRepository(EntitiesRepository delegate, int maxSize, Duration ttl) {
+		this(delegate, maxSize, ttl, null, Clock.systemUTC());
+	}
+
+	public CachingEntitiesRepository(EntitiesRepository delegate, int maxSize, Duration ttl, Duration maxStaleness, Clock clock) {
+		this(delegate, maxSize, ttl, maxStaleness, DEFAULT_FRESHNESS_FACTOR, clock);
+	}
+
+	/**
+	 * @param delegate        the repository to retrieve missing entities from
+	 * @param maxSize         maximum number of entities to be cached
+	 * @param ttl             maximum time an entity is cached after its retrieval
+	 * @param maxStaleness    maximum time an entity providing its modifiedAt is cached, null to only use the ttl
+	 * @param freshnessFactor share of the time an entity was unchanged before its retrieval, that it is cached
+	 * @param clock           clock to evaluate the expiry of entries
+	 */
+	public CachingEntitiesRepository(EntitiesRepository delegate, int maxSize, Duration ttl, Duration maxStaleness, double freshnessFactor, Clock clock) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The cache needs to hold at least one entity.");
+		}
+		if (!(freshnessFactor > 0)) {
+			throw new IllegalArgumentException("The freshness factor needs to be positive.");
+		}
+		this.delegate = delegate;
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.maxStaleness = maxStaleness;
+		this.freshnessFactor = freshnessFactor;
+		this.clock = clock;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				if (size() > CachingEntitiesRepository.this.maxSize) {
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public Mono<List<EntityVO>> getEntities(List<URI> entityIds) {
+		return getEntities(entityIds, List.of());
+	}
+
+	@Override
+	public Mono<List<EntityVO>> getEntities(List<URI> entityIds, List<String> attrs) {
+		return Mono.defer(() -> {
+			List<EntityVO> cachedEntities = new ArrayList<>();
+			List<URI> missingIds = new ArrayList<>();
+			for (URI entityId : new LinkedHashSet<>(entityIds)) {
+				getCached(entityId, attrs).ifPresentOrElse(cachedEntities::add, () -> missingIds.add(entityId));
+			}
+			if (missingIds.isEmpty()) {
+				return Mono.just(cachedEntities);
+			}
+			return Optional.ofNullable(attrs.isEmpty() ? delegate.getEntities(missingIds) : delegate.getEntities(missingIds, attrs))
+					.orElse(Mono.just(List.of()))
+					.defaultIfEmpty(List.of())
+					.map(retrievedEntities -> {
+						put(retrievedEntities, attrs);
+						List<EntityVO> entities = new ArrayList<>(cachedEntities);
+						entities.addAll(retrievedEntities);
+						return entities;
+					});
+		});
+	}
+
+	/**
+	 * Remove all entities from the cache.
+	 */
+	public synchronized void invalidateAll() {
+		cache.clear();
+	}
+
+	/**
+	 * Remove the given entity, with all its projections, from the cache.
+	 */
+	public synchronized void invalidate(URI entityId) {
+		String key = entityId.toString();
+		String projectionPrefix = key + "?attrs=";
+		cache.keySet().removeIf(cachedKey -> cachedKey.equals(key) || cachedKey.startsWith(projectionPrefix));
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Number of entities removed from the cache, either because its size was exceeded or because they expired.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	private synchronized Optional<EntityVO> getCached(URI entityId, List<String> attrs) {
+		Optional<EntityVO> cachedEntity = getValid(AttributeProjection.key(entityId, attrs));
+		if (cachedEntity.isEmpty() && !attrs.isEmpty()) {
+			// entities with all attributes cover every projection
+			cachedEntity = getValid(AttributeProjection.key(entityId, List.of()));
+		}
+		if (cachedEntity.isPresent()) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+		}
+		return cachedEntity;
+	}
+
+	private Optional<EntityVO> getValid(String key) {
+		CacheEntry cacheEntry = cache.get(key);
+		if (cacheEntry != null && cacheEntry.expiresAt().isAfter(clock.instant())) {
+			return Optional.of(cacheEntry.entity());
+		}
+		if (cacheEntry != null) {
+			cache.remove(key);
+			evictionCount.incrementAndGet();
+		}
+		return Optional.empty();
+	}
+
+	private synchronized void put(List<EntityVO> entities, List<String> attrs) {
+		Instant retrievedAt = clock.instant();
+		for (EntityVO entityVO : entities) {
+			if (entityVO == null || entityVO.getId() == null) {
+				log.debug("Not caching entity without id: {}", entityVO);
+				continue;
+			}
+			cache.put(AttributeProjection.key(entityVO.getId(), attrs), new CacheEntry(entityVO, retrievedAt.plus(getLifetime(entityVO, retrievedAt))));
+		}
+	}
+
+	private Duration getLifetime(EntityVO entityVO, Instant retrievedAt) {
+		if (maxStaleness == null || entityVO.getModifiedAt() == null) {
+			return ttl;
+		}
+		Duration unchanged = Duration.between(entityVO.getModifiedAt(), retrievedAt);
+		if (unchanged.isNegative()) {
+			// modified in the future, the clocks are skewed
+			return ttl;
+		}
+		Duration lifetime = Duration.ofMillis((long) (unchanged.toMillis() * freshnessFactor));
+		if (lifetime.compareTo(maxStaleness) > 0) {
+			lifetime = maxStaleness;
+		}
+		return lifetime.compareTo(ttl) > 0 ? ttl : lifetime;
+	}
+
+	private record CacheEntry(EntityVO entity, Instant expiresAt) {
+	}
+}
@@ -0,0 +1,93 @@
+package io.github.wistefan.mapping;
+
+import org.fiware.ngsi.model.EntityVO;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link EntitiesRepository} coalescing concurrent requests for the same entities. If an entity is already being
+ * retrieved from the delegate, further requests subscribe to the pending retrieval instead of requesting it again. Only
+ * the entities not in flight are requested from the delegate, in a single call. Pending retrievals are tracked in a
+ * {@link ConcurrentHashMap}, no locks are taken. A retrieval only starts once all its entities are registered, so that
+ * requests sharing it never see a partial retrieval. Retrievals with a projection are only shared by requests for the
+ * same projection.
+ */
+public class CoalescingEntitiesRepository implements EntitiesRepository {
+
+	private final EntitiesRepository delegate;
+
+	/**
+	 * Pending retrievals by entity id and projection. Entries are removed as soon as the retrieval terminates.
+	 */
+	private final ConcurrentMap<String, Mono<Optional<EntityVO>>> inFlight = new ConcurrentHashMap<>();
+
+	public CoalescingEntitiesRepository(EntitiesRepository delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Mono<List<EntityVO>> getEntities(List<URI> entityIds) {
+		return getEntities(entityIds, List.of());
+	}
+
+	@Override
+	public Mono<List<EntityVO>> getEntities(List<URI> entityIds, List<String> attrs) {
+		// register on subscription, to not leave retrievals in the map that are never executed
+		return Mono.defer(() -> {
+			List<URI> ownedIds = new ArrayList<>();
+			Map<String, Mono<Optional<EntityVO>>> ownedRetrievals = new LinkedHashMap<>();
+			// the owned ids are published once all of them are registered, concurrent subscribers wait for them
+			Sinks.One<List<URI>> ownedIdsSink = Sinks.one();
+			Mono<Map<String, EntityVO>> retrieval = ownedIdsSink.asMono()
+					.flatMap(ids -> Optional.ofNullable(attrs.isEmpty() ? delegate.getEntities(ids) : delegate.getEntities(ids, attrs))
+							.orElse(Mono.just(List.of())))
+					.defaultIfEmpty(List.of())
+					.map(entities -> entities.stream()
+							.filter(Objects::nonNull)
+							.filter(entityVO -> entityVO.getId() != null)
+							.collect(Collectors.toMap(entityVO -> entityVO.getId().toString(), Function.identity(), (e1, e2) -> e1)))
+					// removed before the result is emitted, so that requests following it do not share a completed retrieval
+					.doOnTerminate(() -> ownedRetrievals.forEach(inFlight::remove))
+					.doOnCancel(() -> ownedRetrievals.forEach(inFlight::remove))
+					.cache();
+
+			List<Mono<Optional<EntityVO>>> entityRetrievals = new ArrayList<>();
+			for (URI entityId : new LinkedHashSet<>(entityIds)) {
+				String key = AttributeProjection.key(entityId, attrs);
+				String id = entityId.toString();
+				Mono<Optional<EntityVO>> ownRetrieval = retrieval.map(entities -> Optional.ofNullable(entities.get(id)));
+				Mono<Optional<EntityVO>> pendingRetrieval = inFlight.putIfAbsent(key, ownRetrieval);
+				if (pendingRetrieval == null) {
+					ownedIds.add(entityId);
+					ownedRetrievals.put(key, ownRetrieval);
+					entityRetrievals.add(ownRetrieval);
+				} else {
+					entityRetrievals.add(pendingRetrieval);
+				}
+			}
+			ownedIdsSink.tryEmitValue(List.copyOf(ownedIds));
+			if (entityRetrievals.isEmpty()) {
+				return Mono.just(List.of());
+			}
+			return Mono.zip(entityRetrievals, results -> Arrays.stream(results)
+					.map(result -> (Optional<?>) result)
+					.flatMap(Optional::stream)
+					.map(EntityVO.class::cast)
+					.toList());
+		});
+	}
+}
@@ -0,0 +1,136 @@
+package io.github.wistefan.mapping;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact encoding of lists of primitive values. Instead of one property instance(with its own datasetId) per entry, the
+ * whole list is the value of a single property, wrapped into a json-ld list object({@code {"@list": [...]}}), which is
+ * not compacted to a scalar by the broker, even if it only contains one entry.
+ * <p>
+ * Primitive arrays({@code int[]}, {@code long[]}, {@code double[]}) are always encoded compact and written and read
+ * without boxing their entries.
+ */
+final class CompactLists {
+
+	static final String LIST_KEY = "@list";
+
+	private CompactLists() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Can the value be encoded as compact list?
+	 */
+	static boolean isCompactable(Object value) {
+		if (isPrimitiveArray(value.getClass())) {
+			return true;
+		}
+		if (!(value instanceof List<?> valueList) || valueList.isEmpty()) {
+			return false;
+		}
+		for (Object entry : valueList) {
+			if (!(entry instanceof Number) && !(entry instanceof String) && !(entry instanceof Boolean)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean isPrimitiveArray(Class<?> valueClass) {
+		return valueClass == int[].class || valueClass == long[].class || valueClass == double[].class;
+	}
+
+	/**
+	 * Wrap the list or primitive array into the compact representation. The entries are serialized directly from it.
+	 */
+	static Map<String, Object> wrap(Object values) {
+		return Map.of(LIST_KEY, values);
+	}
+
+	/**
+	 * Get the entries of a compact list, or the value itself if it is not compact.
+	 */
+	static Object unwrap(Object value) {
+		if (value instanceof Map<?, ?> valueMap && valueMap.size() == 1 && valueMap.containsKey(LIST_KEY)) {
+			return valueMap.get(LIST_KEY);
+		}
+		return value;
+	}
+
+	/**
+	 * Read a primitive array, either compact or as plain json array, from the parser pointing to the start of the value.
+	 * The entries are read by jackson's primitive array deserializers, without boxing them.
+	 */
+	static Object readPrimitiveArray(JsonParser parser, ObjectMapper objectMapper, Class<?> arrayClass) throws IOException {
+		if (parser.currentToken() == JsonToken.START_ARRAY) {
+			return objectMapper.readerFor(arrayClass).readValue(parser);
+		}
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			return parser.readValueAs(Object.class);
+		}
+		Object values = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.currentName();
+			parser.nextToken();
+			if (LIST_KEY.equals(name)) {
+				values = objectMapper.readerFor(arrayClass).readValue(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Copy the numbers into a new primitive array of the given class.
+	 *
+	 * @throws IllegalArgumentException if an entry is not a number
+	 */
+	static Object toPrimitiveArray(List<?> values, Class<?> arrayClass) {
+		int size = values.size();
+		if (arrayClass == int[].class) {
+			int[] array = new int[size];
+			int i = 0;
+			for (Object value : values) {
+				array[i++] = toInt(value);
+			}
+			return array;
+		} else if (arrayClass == long[].class) {
+			long[] array = new long[size];
+			int i = 0;
+			for (Object value : values) {
+				array[i++] = toNumber(value).longValue();
+			}
+			return array;
+		} else if (arrayClass == double[].class) {
+			double[] array = new double[size];
+			int i = 0;
+			for (Object value : values) {
+				array[i++] = toNumber(value).doubleValue();
+			}
+			return array;
+		}
+		throw new IllegalArgumentException(String.format("%s is not a supported primitive array.", arrayClass));
+	}
+
+	private static int toInt(Object value) {
+		long longValue = toNumber(value).longValue();
+		if (longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(String.format("%s does not fit into an int.", value));
+		}
+		return (int) longValue;
+	}
+
+	private static Number toNumber(Object value) {
+		if (value instanceof Number number) {
+			return number;
+		}
+		throw new IllegalArgumentException(String.format("%s is not a number.", value));
+	}
+}
@@ -0,0 +1,76 @@
+package io.github.wistefan.mapping;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Built-in {@link DatasetIdStrategy}s.
+ */
+public final class DatasetIdStrategies {
+
+	private static final String UUID_PREFIX = "urn:uuid:";
+	private static final String CONTENT_HASH_PREFIX = "urn:ngsi-ld:dataset:hash:";
+
+	private static final DatasetIdStrategy RANDOM = (attributeName, index, value) -> URI.create(UUID_PREFIX + UUID.randomUUID());
+	private static final DatasetIdStrategy THREAD_LOCAL_RANDOM = (attributeName, index, value) -> URI.create(UUID_PREFIX + threadLocalRandomUUID());
+	private static final IndexedUris INDEX_URIS = new IndexedUris("urn:ngsi-ld:dataset:index:");
+	private static final DatasetIdStrategy INDEX = (attributeName, index, value) -> INDEX_URIS.get(index);
+	private static final DatasetIdStrategy CONTENT_HASH = (attributeName, index, value) ->
+			URI.create(CONTENT_HASH_PREFIX + Integer.toHexString(Objects.hashCode(value)) + "-" + index);
+
+	private DatasetIdStrategies() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Random type 4 UUIDs, created from a {@link java.security.SecureRandom}.
+	 */
+	public static DatasetIdStrategy random() {
+		return RANDOM;
+	}
+
+	/**
+	 * Random type 4 UUIDs, created from the {@link ThreadLocalRandom}. Does not contend between threads, but the ids are
+	 * not cryptographically strong.
+	 */
+	public static DatasetIdStrategy threadLocalRandom() {
+		return THREAD_LOCAL_RANDOM;
+	}
+
+	/**
+	 * Ids derived from the index of the entry in the list. Deterministic, the same list always gets the same ids.
+	 */
+	public static DatasetIdStrategy index() {
+		return INDEX;
+	}
+
+	/**
+	 * Ids derived from the hash of the entry's value and its index, e.g. equal values at the same position get the
+	 * same id, while duplicate values in one list stay distinguishable.
+	 */
+	public static DatasetIdStrategy contentHash() {
+		return CONTENT_HASH;
+	}
+
+	/**
+	 * Get the built-in strategy of the given type.
+	 */
+	public static DatasetIdStrategy forType(MappingProperties.DatasetIdStrategyType strategyType) {
+		return switch (strategyType) {
+			case RANDOM -> random();
+			case THREAD_LOCAL_RANDOM -> threadLocalRandom();
+			case INDEX -> index();
+			case CONTENT_HASH -> contentHash();
+		};
+	}
+
+	private static UUID threadLocalRandomUUID() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		// set version 4 and the IETF variant, as done by UUID#randomUUID
+		long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+		long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(mostSignificantBits, leastSignificantBits);
+	}
+}
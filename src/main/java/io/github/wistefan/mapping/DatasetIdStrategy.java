@@ -0,0 +1,25 @@
+package io.github.wistefan.mapping;
+
+import java.net.URI;
+
+/**
+ * Strategy to provide the datasetIds of the entries of property lists, when mapping to NGSI-LD. Every entry of a list
+ * with more than one element gets a datasetId, to be distinguishable as its own instance of the property.
+ * <p>
+ * Built-in strategies are provided by {@link DatasetIdStrategies} and can be selected via
+ * {@link MappingProperties#getDatasetIdStrategy()}. Custom strategies can be handed to the {@link JavaObjectMapper} and
+ * have to be thread-safe, since the mapper is shared.
+ */
+@FunctionalInterface
+public interface DatasetIdStrategy {
+
+	/**
+	 * Get the datasetId for an entry of the property list. Has to be unique inside the list.
+	 *
+	 * @param attributeName name of the property in NGSI-LD
+	 * @param index         index of the entry in the list
+	 * @param value         value of the entry
+	 * @return the datasetId to be used
+	 */
+	URI getDatasetId(String attributeName, int index, Object value);
+}
@@ -12,4 +12,17 @@ import java.util.List;
 public interface EntitiesRepository {
 
 	Mono<List<EntityVO>> getEntities(List<URI> entityIds);
+
+	/**
+	 * Retrieve the entities, only containing the given attributes(f.e. via the {@code attrs} parameter). Repositories
+	 * not supporting projections return the complete entities.
+	 *
+	 * @param entityIds ids of the entities
+	 * @param attrs     names of the attributes to be retrieved, empty to retrieve all attributes
+	 * @return the entities
+	 * @see AttributeProjection
+	 */
+	default Mono<List<EntityVO>> getEntities(List<URI> entityIds, List<String> attrs) {
+		return getEntities(entityIds);
+	}
 }
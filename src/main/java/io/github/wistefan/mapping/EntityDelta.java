@@ -0,0 +1,98 @@
+package io.github.wistefan.mapping;
+
+import org.fiware.ngsi.model.AdditionalPropertyVO;
+import org.fiware.ngsi.model.EntityFragmentVO;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Difference between two states of an entity, as computed by {@link JavaObjectMapper#diff(Object, Object)}. Provides
+ * the fragments to be sent to the broker, in order to only update what has changed:
+ * <ul>
+ *     <li>{@link #toUpdateFragment()} - all added and changed attributes, for the updateEntity operation</li>
+ *     <li>{@link #toPartialAttrUpdates()} - one fragment per changed attribute, for the partialAttrUpdate operation</li>
+ *     <li>{@link #getRemovedAttributes()} - the attributes to be deleted</li>
+ * </ul>
+ */
+public final class EntityDelta {
+
+	private final URI entityId;
+	private final Object context;
+	private final Map<String, AdditionalPropertyVO> addedAttributes;
+	private final Map<String, AdditionalPropertyVO> changedAttributes;
+	private final Set<String> removedAttributes;
+
+	EntityDelta(URI entityId, Object context, Map<String, AdditionalPropertyVO> addedAttributes,
+				Map<String, AdditionalPropertyVO> changedAttributes, Set<String> removedAttributes) {
+		this.entityId = entityId;
+		this.context = context;
+		this.addedAttributes = Collections.unmodifiableMap(addedAttributes);
+		this.changedAttributes = Collections.unmodifiableMap(changedAttributes);
+		this.removedAttributes = Collections.unmodifiableSet(removedAttributes);
+	}
+
+	public URI getEntityId() {
+		return entityId;
+	}
+
+	/**
+	 * Attributes not contained in the previous state.
+	 */
+	public Map<String, AdditionalPropertyVO> getAddedAttributes() {
+		return addedAttributes;
+	}
+
+	/**
+	 * Attributes with a different value(including their sub-attributes) than in the previous state.
+	 */
+	public Map<String, AdditionalPropertyVO> getChangedAttributes() {
+		return changedAttributes;
+	}
+
+	/**
+	 * Names of the attributes no longer contained in the current state.
+	 */
+	public Set<String> getRemovedAttributes() {
+		return removedAttributes;
+	}
+
+	/**
+	 * True if both states are equal.
+	 */
+	public boolean isEmpty() {
+		return addedAttributes.isEmpty() && changedAttributes.isEmpty() && removedAttributes.isEmpty();
+	}
+
+	/**
+	 * Fragment containing all added and changed attributes, to be sent with the updateEntity operation.
+	 */
+	public EntityFragmentVO toUpdateFragment() {
+		EntityFragmentVO entityFragmentVO = new EntityFragmentVO().atContext(context);
+		addedAttributes.forEach(entityFragmentVO::setAdditionalProperties);
+		changedAttributes.forEach(entityFragmentVO::setAdditionalProperties);
+		return entityFragmentVO;
+	}
+
+	/**
+	 * Fragments for every changed attribute, by the attribute name, to be sent with the partialAttrUpdate operation.
+	 */
+	public Map<String, EntityFragmentVO> toPartialAttrUpdates() {
+		Map<String, EntityFragmentVO> fragments = new LinkedHashMap<>();
+		changedAttributes.forEach((name, attribute) -> {
+			EntityFragmentVO entityFragmentVO = new EntityFragmentVO().atContext(context);
+			entityFragmentVO.setAdditionalProperties(name, attribute);
+			fragments.put(name, entityFragmentVO);
+		});
+		return fragments;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityDelta(entityId=" + entityId + ", added=" + addedAttributes.keySet() + ", changed="
+				+ changedAttributes.keySet() + ", removed=" + removedAttributes + ")";
+	}
+}
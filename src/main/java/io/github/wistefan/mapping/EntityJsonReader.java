@@ -0,0 +1,140 @@
+package io.github.wistefan.mapping;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import org.fiware.ngsi.model.EntityVO;
+import org.fiware.ngsi.model.PropertyTypeVO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads NGSI-LD entities from JSON, driven by the {@link SetterMappingPlan} of the target class. Values of attributes
+ * mapped to {@link AttributeType#PROPERTY} setters are read directly from the token stream, attributes without any
+ * mapping are skipped. Only the remaining attributes(e.g. relationships, lists or geo-properties) are buffered and
+ * deserialized into an {@link EntityVO}, to be mapped as usual. Values of primitive array setters are read without
+ * boxing their entries.
+ */
+final class EntityJsonReader {
+
+	private static final String TYPE_FIELD = "type";
+	private static final String VALUE_FIELD = "value";
+	private static final String CONTEXT_FIELD = "@context";
+
+	private final ObjectMapper objectMapper;
+	private final SetterMappingPlan mappingPlan;
+
+	EntityJsonReader(ObjectMapper objectMapper, SetterMappingPlan mappingPlan) {
+		this.objectMapper = objectMapper;
+		this.mappingPlan = mappingPlan;
+	}
+
+	/**
+	 * Read the entity from the parser. The parser has to point to the start of the entity or before it.
+	 *
+	 * @param parser parser to read from
+	 * @return the read entity
+	 * @throws IOException if the json cannot be read
+	 */
+	ReadEntity read(JsonParser parser) throws IOException {
+		JsonToken startToken = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+		if (startToken != JsonToken.START_OBJECT) {
+			throw new MappingException(String.format("Expected an entity object, but received %s.", startToken));
+		}
+		// everything that is not read directly
+		TokenBuffer remainder = new TokenBuffer(parser);
+		remainder.writeStartObject();
+		List<PropertyValue> propertyValues = new ArrayList<>();
+		boolean keepUnmapped = mappingPlan.getUnmappedPropertiesSetter().isPresent();
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.currentName();
+			JsonToken valueToken = parser.nextToken();
+			Optional<SetterMappingPlan.SetterEntry> optionalSetter = mappingPlan.getSetter(fieldName);
+
+			if (optionalSetter.isEmpty() && !keepUnmapped && isAttribute(fieldName)) {
+				parser.skipChildren();
+			} else if (optionalSetter.isPresent() && optionalSetter.get().annotation().value() == AttributeType.PROPERTY && valueToken == JsonToken.START_OBJECT) {
+				TokenBuffer attribute = new TokenBuffer(parser);
+				attribute.copyCurrentStructure(parser);
+				Optional<PropertyValue> optionalValue = readPropertyValue(attribute, optionalSetter.get());
+				if (optionalValue.isPresent()) {
+					propertyValues.add(optionalValue.get());
+				} else {
+					remainder.writeFieldName(fieldName);
+					remainder.append(attribute);
+				}
+			} else {
+				remainder.writeFieldName(fieldName);
+				remainder.copyCurrentStructure(parser);
+			}
+		}
+		remainder.writeEndObject();
+		EntityVO entityVO = objectMapper.readValue(remainder.asParser(objectMapper), EntityVO.class);
+		return new ReadEntity(entityVO, propertyValues);
+	}
+
+	/**
+	 * Read the value of the buffered attribute, if it is a plain NGSI-LD property. Empty for everything else, to be
+	 * handled by the default deserialization.
+	 */
+	private Optional<PropertyValue> readPropertyValue(TokenBuffer attribute, SetterMappingPlan.SetterEntry setter) throws IOException {
+		JsonParser attributeParser = attribute.asParser(objectMapper);
+		// START_OBJECT
+		attributeParser.nextToken();
+		boolean isProperty = false;
+		boolean hasValue = false;
+		Object value = null;
+		while (attributeParser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = attributeParser.currentName();
+			JsonToken token = attributeParser.nextToken();
+			if (TYPE_FIELD.equals(name)) {
+				isProperty = token == JsonToken.VALUE_STRING && PropertyTypeVO.PROPERTY.getValue().equals(attributeParser.getText());
+			} else if (VALUE_FIELD.equals(name)) {
+				hasValue = true;
+				Class<?> parameterType = setter.singleParameterType().orElse(Object.class);
+				value = CompactLists.isPrimitiveArray(parameterType)
+						? CompactLists.readPrimitiveArray(attributeParser, objectMapper, parameterType)
+						: attributeParser.readValueAs(Object.class);
+			} else {
+				attributeParser.skipChildren();
+			}
+		}
+		if (isProperty && hasValue) {
+			return Optional.of(new PropertyValue(setter, value));
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Id, type and context are always required for the entity, all other fields are attributes.
+	 */
+	private static boolean isAttribute(String fieldName) {
+		return !EntityVO.JSON_PROPERTY_ID.equals(fieldName)
+				&& !EntityVO.JSON_PROPERTY_TYPE.equals(fieldName)
+				&& !CONTEXT_FIELD.equals(fieldName);
+	}
+
+	/**
+	 * The entity read from json.
+	 *
+	 * @param entityVO       entity containing all attributes that were not read directly
+	 * @param propertyValues values of the properties read directly
+	 */
+	record ReadEntity(EntityVO entityVO, List<PropertyValue> propertyValues) {
+	}
+
+	/**
+	 * Value of a property, read directly.
+	 *
+	 * @param setter setter to set the value with
+	 * @param value  the value, as read from json
+	 */
+	record PropertyValue(SetterMappingPlan.SetterEntry setter, Object value) {
+	}
+}
@@ -1,5 +1,6 @@
 package io.github.wistefan.mapping;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,19 +8,24 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.github.wistefan.mapping.annotations.*;
 import lombok.extern.slf4j.Slf4j;
 import org.fiware.ngsi.model.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.swing.undo.UndoManager;
-import java.lang.reflect.Constructor;
+import java.io.IOException;
+import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -34,8 +40,18 @@ public class EntityVOMapper extends Mapper {
 	private final MappingProperties mappingProperties;
 	private final ObjectMapper objectMapper;
 	private final EntitiesRepository entitiesRepository;
+	private final ValueConverters valueConverters;
 
 	public EntityVOMapper(MappingProperties mappingProperties, ObjectMapper objectMapper, EntitiesRepository entitiesRepository) {
+		this(mappingProperties, objectMapper, entitiesRepository, new ValueCodecRegistry());
+	}
+
+	/**
+	 * Create the mapper with custom codecs for plain values.
+	 */
+	@Inject
+	public EntityVOMapper(MappingProperties mappingProperties, ObjectMapper objectMapper, EntitiesRepository entitiesRepository,
+						  ValueCodecRegistry valueCodecs) {
 		this.mappingProperties = mappingProperties;
 		this.objectMapper = objectMapper;
 		this.entitiesRepository = entitiesRepository;
@@ -46,6 +62,7 @@ public class EntityVOMapper extends Mapper {
 				new GeoQueryDeserializer()));
 
 		this.objectMapper.findAndRegisterModules();
+		this.valueConverters = new ValueConverters(objectMapper, valueCodecs);
 	}
 
 	/**
@@ -87,34 +104,288 @@ public class EntityVOMapper extends Mapper {
 	 * @return the mapped object
 	 */
 	public <T> Mono<T> fromEntityVO(EntityVO entityVO, Class<T> targetClass) {
+		return fromEntityVOWithOverrides(entityVO, null, targetClass);
+	}
+
+	/**
+	 * Map the entity, with its attributes overlaid by the given overrides(f.e. the properties of the relationship pointing
+	 * to it). The entity itself is not modified.
+	 */
+	private <T> Mono<T> fromEntityVOWithOverrides(EntityVO entityVO, Map<String, AdditionalPropertyVO> overrides, Class<T> targetClass) {
+
+		Optional<MappingException> validationError = validateMapping(entityVO, targetClass);
+		if (validationError.isPresent()) {
+			return Mono.error(validationError.get());
+		}
+		SetterMappingPlan mappingPlan = SetterMappingPlan.forClass(targetClass);
+		Map<String, AdditionalPropertyVO> propertiesMap = getPropertiesMap(entityVO, overrides);
+		if (!requiresRelationships(mappingPlan, propertiesMap)) {
+			// nothing to retrieve, no need to assemble a reactive pipeline per attribute
+			return Mono.fromCallable(() -> fromEntityVOSync(entityVO, targetClass, mappingPlan, propertiesMap));
+		}
+
+		return retrieveRelationships(List.of(new RelationshipSource(propertiesMap, targetClass, entityVO)))
+				.flatMap(relationshipMap -> fromEntityVO(entityVO, overrides, targetClass, RelationshipContext.of(relationshipMap, new LazyRelationshipLoader(entitiesRepository))));
+
+	}
+
+	/**
+	 * Translate a list of entities to objects of the given class. The relationships of all entities are retrieved through
+	 * a single call to the {@link EntitiesRepository} per window of {@link MappingProperties#getBatchSize()} entities.
+	 *
+	 * @param entityVOs   the NGSI-LD entities to be mapped
+	 * @param targetClass class of the target objects
+	 * @param <T>         generic type of the target objects, has to extend provide a string-constructor to receive the entity id
+	 * @return a flux, emitting the mapped objects in the order of the entities
+	 */
+	public <T> Flux<T> fromEntityVOs(List<EntityVO> entityVOs, Class<T> targetClass) {
+		return fromEntityVOs(Flux.fromIterable(entityVOs), targetClass);
+	}
 
+	/**
+	 * Translate a stream of entities to objects of the given class. The entities are mapped in windows of
+	 * {@link MappingProperties#getBatchSize()} entities, the relationships of all entities inside a window are retrieved
+	 * through a single call to the {@link EntitiesRepository}.
+	 *
+	 * @param entityVOs   the NGSI-LD entities to be mapped
+	 * @param targetClass class of the target objects
+	 * @param <T>         generic type of the target objects, has to extend provide a string-constructor to receive the entity id
+	 * @return a flux, emitting the mapped objects in the order of the entities
+	 */
+	public <T> Flux<T> fromEntityVOs(Flux<EntityVO> entityVOs, Class<T> targetClass) {
+		return entityVOs
+				.buffer(mappingProperties.getBatchSize())
+				.concatMap(window -> fromEntityVOWindow(window, targetClass));
+	}
+
+	/**
+	 * Map a window of entities, sharing the retrieved relationships between all of them.
+	 */
+	private <T> Flux<T> fromEntityVOWindow(List<EntityVO> entityVOs, Class<T> targetClass) {
+		Optional<MappingException> validationError = entityVOs.stream()
+				.map(entityVO -> validateMapping(entityVO, targetClass))
+				.flatMap(Optional::stream)
+				.findFirst();
+		if (validationError.isPresent()) {
+			return Flux.error(validationError.get());
+		}
+		SetterMappingPlan mappingPlan = SetterMappingPlan.forClass(targetClass);
+		List<Map<String, AdditionalPropertyVO>> propertiesMaps = entityVOs.stream()
+				.map(entityVO -> getPropertiesMap(entityVO, null))
+				.toList();
+		List<RelationshipSource> relationshipSources = IntStream.range(0, entityVOs.size())
+				.filter(i -> requiresRelationships(mappingPlan, propertiesMaps.get(i)))
+				.mapToObj(i -> new RelationshipSource(propertiesMaps.get(i), targetClass, entityVOs.get(i)))
+				.toList();
+		return retrieveRelationships(relationshipSources)
+				.map(relationshipMap -> RelationshipContext.of(relationshipMap, new LazyRelationshipLoader(entitiesRepository)))
+				.flatMapMany(relationshipContext -> Flux.range(0, entityVOs.size())
+						.concatMap(i -> {
+							EntityVO entityVO = entityVOs.get(i);
+							Map<String, AdditionalPropertyVO> propertiesMap = propertiesMaps.get(i);
+							if (!requiresRelationships(mappingPlan, propertiesMap)) {
+								// same fast path as for single entities
+								return Mono.fromCallable(() -> fromEntityVOSync(entityVO, targetClass, mappingPlan, propertiesMap));
+							}
+							return fromEntityVO(entityVO, null, targetClass, relationshipContext);
+						}));
+	}
+
+	/**
+	 * Synchronous variant of {@link #fromEntityVO(EntityVO, Class)}. If none of the entity's attributes is mapped to a
+	 * relationship, the object is filled directly in the calling thread. Otherwise, the related entities have to be
+	 * retrieved through the {@link EntitiesRepository} and the call blocks until they are available.
+	 *
+	 * @param entityVO    the NGSI-LD entity to be mapped
+	 * @param targetClass class of the target object
+	 * @param <T>         generic type of the target object, has to extend provide a string-constructor to receive the entity id
+	 * @return the mapped object
+	 * @throws MappingException if the entity cannot be mapped
+	 */
+	public <T> T fromEntityVOSync(EntityVO entityVO, Class<T> targetClass) {
+		Optional<MappingException> validationError = validateMapping(entityVO, targetClass);
+		if (validationError.isPresent()) {
+			throw validationError.get();
+		}
+		SetterMappingPlan mappingPlan = SetterMappingPlan.forClass(targetClass);
+		Map<String, AdditionalPropertyVO> propertiesMap = getPropertiesMap(entityVO, null);
+		if (!requiresRelationships(mappingPlan, propertiesMap)) {
+			return fromEntityVOSync(entityVO, targetClass, mappingPlan, propertiesMap);
+		}
+		return fromEntityVO(entityVO, targetClass).block();
+	}
+
+	/**
+	 * Map an NGSI-LD entity, provided as json, into a Java-Object of class targetClass. See {@link #fromJson(JsonParser, Class)}.
+	 *
+	 * @param json        the NGSI-LD entity as json
+	 * @param targetClass class of the target object
+	 * @param <T>         generic type of the target object, has to extend provide a string-constructor to receive the entity id
+	 * @return the mapped object
+	 */
+	public <T> Mono<T> fromJson(String json, Class<T> targetClass) {
+		try {
+			return fromJson(objectMapper.getFactory().createParser(json), targetClass);
+		} catch (IOException e) {
+			return Mono.error(new MappingException("Was not able to read the entity.", e));
+		}
+	}
+
+	/**
+	 * Map an NGSI-LD entity, provided as json, into a Java-Object of class targetClass. See {@link #fromJson(JsonParser, Class)}.
+	 *
+	 * @param json        the NGSI-LD entity as json
+	 * @param targetClass class of the target object
+	 * @param <T>         generic type of the target object, has to extend provide a string-constructor to receive the entity id
+	 * @return the mapped object
+	 */
+	public <T> Mono<T> fromJson(byte[] json, Class<T> targetClass) {
+		try {
+			return fromJson(objectMapper.getFactory().createParser(json), targetClass);
+		} catch (IOException e) {
+			return Mono.error(new MappingException("Was not able to read the entity.", e));
+		}
+	}
+
+	/**
+	 * Map an NGSI-LD entity, read from the given parser, into a Java-Object of class targetClass. Instead of deserializing
+	 * the complete {@link EntityVO} first, the values of properties are read directly from the parser and attributes not
+	 * mapped by the target class are skipped. Relationships and all other attributes are mapped as in
+	 * {@link #fromEntityVO(EntityVO, Class)}. The entity is read synchronously, before the returned mono is subscribed.
+	 *
+	 * @param parser      parser pointing to the start of the entity or before it
+	 * @param targetClass class of the target object
+	 * @param <T>         generic type of the target object, has to extend provide a string-constructor to receive the entity id
+	 * @return the mapped object
+	 */
+	public <T> Mono<T> fromJson(JsonParser parser, Class<T> targetClass) {
+		EntityJsonReader.ReadEntity readEntity;
+		try {
+			readEntity = new EntityJsonReader(objectMapper, SetterMappingPlan.forClass(targetClass)).read(parser);
+		} catch (IOException e) {
+			return Mono.error(new MappingException("Was not able to read the entity.", e));
+		} catch (MappingException e) {
+			return Mono.error(e);
+		}
+		return fromEntityVO(readEntity.entityVO(), targetClass)
+				.map(constructedObject -> {
+					readEntity.propertyValues()
+							.forEach(propertyValue -> invokeSetter(propertyValue.setter().setter(), constructedObject,
+									valueConverters.convert(unescapeReservedKeys(CompactLists.unwrap(propertyValue.value())), propertyValue.setter().genericParameterType())));
+					return constructedObject;
+				});
+	}
+
+	/**
+	 * Check that the entity can be mapped to the target class.
+	 */
+	private <T> Optional<MappingException> validateMapping(EntityVO entityVO, Class<T> targetClass) {
 		Optional<MappingEnabled> optionalMappingEnabled = isMappingEnabled(targetClass);
 		if (!optionalMappingEnabled.isPresent()) {
-			return Mono.error(new MappingException(String.format("Mapping is not enabled for class %s", targetClass)));
+			return Optional.of(new MappingException(String.format("Mapping is not enabled for class %s", targetClass)));
 		}
 
 		MappingEnabled mappingEnabled = optionalMappingEnabled.get();
 
 		if (!Arrays.stream(mappingEnabled.entityType()).toList().contains(entityVO.getType())) {
-			return Mono.error(new MappingException(String.format("Entity and Class type do not match - %s vs %s.", entityVO.getType(), Arrays.asList(mappingEnabled.entityType()))));
+			return Optional.of(new MappingException(String.format("Entity and Class type do not match - %s vs %s.", entityVO.getType(), Arrays.asList(mappingEnabled.entityType()))));
 		}
-		Map<String, AdditionalPropertyVO> additionalPropertyVOMap = Optional.ofNullable(entityVO.getAdditionalProperties()).orElse(Map.of());
+		return Optional.empty();
+	}
+
+	/**
+	 * Check if any of the given attributes is mapped to a relationship of the target class. Only in that case, entities
+	 * have to be retrieved and the mapping has to be done reactively.
+	 */
+	private boolean requiresRelationships(SetterMappingPlan mappingPlan, Map<String, AdditionalPropertyVO> propertiesMap) {
+		return mappingPlan.getRelationshipAttributes()
+				.stream()
+				.anyMatch(propertiesMap::containsKey);
+	}
 
-		return getRelationshipMap(additionalPropertyVOMap, targetClass)
-				.flatMap(relationshipMap -> fromEntityVO(entityVO, targetClass, relationshipMap));
+	/**
+	 * Retrieve all entities related to the given sources, level by level. Every level of the relationship graph is
+	 * retrieved through a single call to the {@link EntitiesRepository}, until no new entities are referenced or the
+	 * {@link MappingProperties#getMaxRelationshipDepth()} is reached. Already retrieved entities are not requested again.
+	 *
+	 * @param relationshipSources the properties to start from, together with the class they are mapped to
+	 * @return a single, emitting the map of all related entities
+	 */
+	private Mono<Map<String, EntityVO>> retrieveRelationships(List<RelationshipSource> relationshipSources) {
+		Map<String, EntityVO> retrievedEntities = new HashMap<>();
+		Map<String, List<String>> retrievedAttrs = new HashMap<>();
+		Set<String> expandedEntities = new HashSet<>();
+		// the mapped entities are known already, relationships pointing back to them must not retrieve them again
+		relationshipSources.stream()
+				.filter(relationshipSource -> relationshipSource.entityVO() != null && relationshipSource.entityVO().getId() != null)
+				.forEach(relationshipSource -> {
+					String entityId = relationshipSource.entityVO().getId().toString();
+					retrievedEntities.put(entityId, relationshipSource.entityVO());
+					retrievedAttrs.put(entityId, List.of());
+					expandedEntities.add(relationshipSource.targetClass().getName() + entityId);
+				});
+		return retrieveRelationships(relationshipSources, retrievedEntities, retrievedAttrs, expandedEntities, 1);
+	}
 
+	/**
+	 * @param retrievedAttrs projections the retrieved entities were requested with, by their id
+	 */
+	private Mono<Map<String, EntityVO>> retrieveRelationships(List<RelationshipSource> relationshipSources, Map<String, EntityVO> retrievedEntities, Map<String, List<String>> retrievedAttrs, Set<String> expandedEntities, int depth) {
+		if (relationshipSources.isEmpty() || depth > mappingProperties.getMaxRelationshipDepth()) {
+			return Mono.just(retrievedEntities);
+		}
+		List<RelationshipTarget> relationshipTargets = relationshipSources.stream()
+				.flatMap(relationshipSource -> getRelationshipTargets(relationshipSource.properties(), relationshipSource.targetClass()).stream())
+				.toList();
+		// entities are missing if not retrieved yet or retrieved without the attributes required for the target class
+		Map<URI, List<String>> missingEntities = new LinkedHashMap<>();
+		relationshipTargets.forEach(relationshipTarget -> {
+			URI entityId = relationshipTarget.relationship().getObject();
+			if (entityId == null) {
+				return;
+			}
+			List<String> requiredAttrs = getProjection(relationshipTarget.targetClass());
+			List<String> previousAttrs = retrievedAttrs.get(entityId.toString());
+			if (previousAttrs != null && AttributeProjection.covers(previousAttrs, requiredAttrs)) {
+				return;
+			}
+			List<String> missingAttrs = previousAttrs == null ? requiredAttrs : AttributeProjection.union(List.of(previousAttrs, requiredAttrs));
+			missingEntities.merge(entityId, missingAttrs, (a1, a2) -> AttributeProjection.union(List.of(a1, a2)));
+		});
+		List<String> levelAttrs = AttributeProjection.union(missingEntities.values());
+		Mono<Map<String, EntityVO>> levelEntities = missingEntities.isEmpty() ? Mono.just(Map.of()) : getRelationshipMap(List.copyOf(missingEntities.keySet()), levelAttrs);
+		return levelEntities.flatMap(entities -> {
+			entities.forEach((entityId, entityVO) -> {
+				retrievedEntities.put(entityId, entityVO);
+				retrievedAttrs.put(entityId, levelAttrs);
+			});
+			List<RelationshipSource> nextLevel = new ArrayList<>();
+			relationshipTargets.forEach(relationshipTarget -> {
+				RelationshipVO relationshipVO = relationshipTarget.relationship();
+				Optional.ofNullable(relationshipVO.getObject())
+						.map(URI::toString)
+						.map(retrievedEntities::get)
+						// every entity is only evaluated once per target class, which also breaks cycles in the graph
+						.filter(entityVO -> expandedEntities.add(relationshipTarget.targetClass().getName() + entityVO.getId()))
+						.ifPresent(entityVO -> nextLevel.add(new RelationshipSource(entityVO.getAdditionalProperties(), relationshipTarget.targetClass())));
+				// properties of the relationship are merged into the related entity, thus can also reference entities
+				if (relationshipVO.getAdditionalProperties() != null) {
+					nextLevel.add(new RelationshipSource(relationshipVO.getAdditionalProperties(), relationshipTarget.targetClass()));
+				}
+			});
+			return retrieveRelationships(nextLevel, retrievedEntities, retrievedAttrs, expandedEntities, depth + 1);
+		});
 	}
 
 	/**
-	 * Return a single, emitting the entities associated with relationships in the given properties maps
+	 * Return a single, emitting the entities with the given ids
 	 *
-	 * @param propertiesMap properties map to evaluate
-	 * @param targetClass   class of the target object
-	 * @param <T>           the class
+	 * @param relationshipObjects ids of the related entities
+	 * @param attrs               attributes to be retrieved, empty for all
 	 * @return a single, emitting the map of related entities
 	 */
-	private <T> Mono<Map<String, EntityVO>> getRelationshipMap(Map<String, AdditionalPropertyVO> propertiesMap, Class<T> targetClass) {
-		return Optional.ofNullable(entitiesRepository.getEntities(getRelationshipObjects(propertiesMap, targetClass)))
+	private Mono<Map<String, EntityVO>> getRelationshipMap(List<URI> relationshipObjects, List<String> attrs) {
+		return Optional.ofNullable(attrs.isEmpty() ? entitiesRepository.getEntities(relationshipObjects) : entitiesRepository.getEntities(relationshipObjects, attrs))
 				.orElse(Mono.just(List.of()))
 				.switchIfEmpty(Mono.just(List.of()))
 				.map(relationshipsList -> relationshipsList.stream()
@@ -124,56 +395,114 @@ public class EntityVOMapper extends Mapper {
 				.defaultIfEmpty(Map.of());
 	}
 
+	/**
+	 * Attributes to be retrieved for related entities of the given class, empty for all.
+	 */
+	private List<String> getProjection(Class<?> targetClass) {
+		return mappingProperties.isProjectAttributes() ? AttributeProjection.forClass(targetClass) : List.of();
+	}
+
 	private static <T> Predicate<T> distinctByKey(Function<? super T, Object> keyExtractor) {
 		Map<Object, Boolean> seen = new ConcurrentHashMap<>();
 		return t -> seen.putIfAbsent(keyExtractor.apply(t), Boolean.TRUE) == null;
 	}
 
+	/**
+	 * Create the actual object from the entity, without any relationships to be evaluated.
+	 *
+	 * @param entityVO      entity to create the object from
+	 * @param targetClass   class of the object to be created
+	 * @param mappingPlan   the mapping plan of the target class
+	 * @param propertiesMap all attributes of the entity, none of them mapped to a relationship
+	 * @param <T>           the class
+	 * @return the actual object
+	 */
+	private <T> T fromEntityVOSync(EntityVO entityVO, Class<T> targetClass, SetterMappingPlan mappingPlan, Map<String, AdditionalPropertyVO> propertiesMap) {
+		T constructedObject;
+		try {
+			constructedObject = newInstance(mappingPlan, targetClass, entityVO.getId().toString());
+		} catch (NoSuchMethodException e) {
+			throw new MappingException(String.format("The class %s does not declare the required String id constructor.", targetClass));
+		} catch (InvocationTargetException e) {
+			throw new MappingException(String.format("Was not able to create instance of %s.", targetClass), e);
+		}
+
+		for (Map.Entry<String, AdditionalPropertyVO> entry : propertiesMap.entrySet()) {
+			applyAttribute(entry, constructedObject, mappingPlan, entityVO.getId().toString());
+		}
+		Optional<Accessors.Setter> unmappedPropertiesSetter = mappingPlan.getUnmappedPropertiesSetter();
+		if (unmappedPropertiesSetter.isPresent()) {
+			invokeSetter(unmappedPropertiesSetter.get(), constructedObject, getUnmappedProperties(mappingPlan, propertiesMap));
+		}
+		return constructedObject;
+	}
+
+	/**
+	 * Collect all attributes of the entity, including the "well-known" properties. The additional properties and the
+	 * overrides are overlaid, not copied, so the entity can safely be shared between mappings.
+	 *
+	 * @param entityVO  the entity
+	 * @param overrides attributes replacing the ones of the entity, may be null
+	 * @return read-only view of all attributes
+	 */
+	private Map<String, AdditionalPropertyVO> getPropertiesMap(EntityVO entityVO, Map<String, AdditionalPropertyVO> overrides) {
+		// handle "well-known" properties
+		Map<String, AdditionalPropertyVO> wellKnownProperties = new LinkedHashMap<>();
+		wellKnownProperties.put(EntityVO.JSON_PROPERTY_LOCATION, entityVO.getLocation());
+		wellKnownProperties.put(EntityVO.JSON_PROPERTY_OBSERVATION_SPACE, entityVO.getObservationSpace());
+		wellKnownProperties.put(EntityVO.JSON_PROPERTY_OPERATION_SPACE, entityVO.getOperationSpace());
+		wellKnownProperties.put(EntityVO.JSON_PROPERTY_CREATED_AT, propertyVOFromValue(entityVO.getCreatedAt()));
+		wellKnownProperties.put(EntityVO.JSON_PROPERTY_MODIFIED_AT, propertyVOFromValue(entityVO.getModifiedAt()));
+		return OverlayMap.of(OverlayMap.of(wellKnownProperties, entityVO.getAdditionalProperties()), overrides);
+	}
+
+	/**
+	 * Get all attributes that are neither mapped by a setter nor "well-known".
+	 */
+	private List<UnmappedProperty> getUnmappedProperties(SetterMappingPlan mappingPlan, Map<String, AdditionalPropertyVO> propertiesMap) {
+		List<Map.Entry<String, AdditionalPropertyVO>> unmappedProperties = propertiesMap.entrySet()
+				.stream()
+				.filter(entry -> mappingPlan.getSetter(entry.getKey()).isEmpty())
+				.filter(entry -> !isWellKnownProperty(entry.getKey()))
+				.toList();
+		return toUnmappedProperties(unmappedProperties);
+	}
+
 	/**
 	 * Create the actual object from the entity, after its relations are evaluated.
 	 *
-	 * @param entityVO        entity to create the object from
-	 * @param targetClass     class of the object to be created
-	 * @param relationShipMap all entities (directly) related to the objects. Sub relationships(e.g. relationships of properties) will be evaluated downstream.
-	 * @param <T>             the class
+	 * @param entityVO            entity to create the object from
+	 * @param overrides           attributes replacing the ones of the entity, may be null
+	 * @param targetClass         class of the object to be created
+	 * @param relationshipContext context holding all entities related to the object. Sub relationships(e.g. relationships of properties) will be evaluated downstream.
+	 * @param <T>                 the class
 	 * @return a single, emitting the actual object.
 	 */
-	private <T> Mono<T> fromEntityVO(EntityVO entityVO, Class<T> targetClass, Map<String, EntityVO> relationShipMap) {
+	private <T> Mono<T> fromEntityVO(EntityVO entityVO, Map<String, AdditionalPropertyVO> overrides, Class<T> targetClass, RelationshipContext relationshipContext) {
 		try {
-			Constructor<T> objectConstructor = targetClass.getDeclaredConstructor(String.class);
-			T constructedObject = objectConstructor.newInstance(entityVO.getId().toString());
-
-			// handle "well-known" properties
-			Map<String, AdditionalPropertyVO> propertiesMap = new LinkedHashMap<>();
-			propertiesMap.put(EntityVO.JSON_PROPERTY_LOCATION, entityVO.getLocation());
-			propertiesMap.put(EntityVO.JSON_PROPERTY_OBSERVATION_SPACE, entityVO.getObservationSpace());
-			propertiesMap.put(EntityVO.JSON_PROPERTY_OPERATION_SPACE, entityVO.getOperationSpace());
-			propertiesMap.put(EntityVO.JSON_PROPERTY_CREATED_AT, propertyVOFromValue(entityVO.getCreatedAt()));
-			propertiesMap.put(EntityVO.JSON_PROPERTY_MODIFIED_AT, propertyVOFromValue(entityVO.getModifiedAt()));
-			Optional.ofNullable(entityVO.getAdditionalProperties()).ifPresent(propertiesMap::putAll);
+			SetterMappingPlan mappingPlan = SetterMappingPlan.forClass(targetClass);
+			T constructedObject = newInstance(mappingPlan, targetClass, entityVO.getId().toString());
+			// the relationships are evaluated in the context of the current object, to break potential cycles
+			RelationshipContext childContext = relationshipContext.enter(targetClass, entityVO.getId().toString(), constructedObject);
 
+			Map<String, AdditionalPropertyVO> propertiesMap = getPropertiesMap(entityVO, overrides);
 
 			List<Mono<T>> singleInvocations = propertiesMap.entrySet().stream()
-					.map(entry -> getObjectInvocation(entry, constructedObject, relationShipMap, entityVO.getId().toString()))
+					.map(entry -> getObjectInvocation(entry, constructedObject, mappingPlan, childContext, entityVO.getId().toString()))
 					.toList();
 
-			Optional<Method> unmappedPropertiesSetter = getUnmappedPropertiesSetter(constructedObject);
+			Optional<Accessors.Setter> unmappedPropertiesSetter = mappingPlan.getUnmappedPropertiesSetter();
 			if (unmappedPropertiesSetter.isPresent()) {
-				List<Map.Entry<String, AdditionalPropertyVO>> unmappedProperties = propertiesMap.entrySet()
-						.stream()
-						.filter(entry -> getCorrespondingSetterMethod(constructedObject, entry.getKey()).isEmpty())
-						.filter(entry -> !isWellKnownProperty(entry.getKey()))
-						.toList();
 				singleInvocations = new ArrayList<>(singleInvocations);
 				singleInvocations.add(
-						invokeWithExceptionHandling(unmappedPropertiesSetter.get(), constructedObject, toUnmappedProperties(unmappedProperties)));
+						invokeWithExceptionHandling(unmappedPropertiesSetter.get(), constructedObject, getUnmappedProperties(mappingPlan, propertiesMap)));
 			}
 
 			return Mono.zip(singleInvocations, constructedObjects -> constructedObject);
 
 		} catch (NoSuchMethodException e) {
 			return Mono.error(new MappingException(String.format("The class %s does not declare the required String id constructor.", targetClass)));
-		} catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+		} catch (InvocationTargetException e) {
 			return Mono.error(new MappingException(String.format("Was not able to create instance of %s.", targetClass), e));
 		}
 	}
@@ -203,42 +532,63 @@ public class EntityVOMapper extends Mapper {
 	 *
 	 * @param entry                   additional properties entry
 	 * @param objectUnderConstruction the new object, to be filled with the values
-	 * @param relationShipMap         map of pre-evaluated relations
+	 * @param mappingPlan             the mapping plan of the constructed object's class
+	 * @param relationshipContext     context containing the pre-evaluated relations
 	 * @param entityId                id of the entity
 	 * @param <T>                     class of the constructed object
 	 * @return single, emmiting the constructed object
 	 */
-	private <T> Mono<T> getObjectInvocation(Map.Entry<String, AdditionalPropertyVO> entry, T objectUnderConstruction, Map<String, EntityVO> relationShipMap, String entityId) {
-		Optional<Method> optionalSetter = getCorrespondingSetterMethod(objectUnderConstruction, entry.getKey());
+	private <T> Mono<T> getObjectInvocation(Map.Entry<String, AdditionalPropertyVO> entry, T objectUnderConstruction, SetterMappingPlan mappingPlan, RelationshipContext relationshipContext, String entityId) {
+		Optional<SetterMappingPlan.SetterEntry> optionalSetter = mappingPlan.getSetter(entry.getKey());
 		if (optionalSetter.isEmpty()) {
 			log.debug("Ignoring property {} for entity {} since there is no mapping configured.", entry.getKey(), entityId);
 			return Mono.just(objectUnderConstruction);
 		}
-		Method setterMethod = optionalSetter.get();
-
-		Optional<AttributeSetter> optionalAttributeSetter = getAttributeSetterAnnotation(setterMethod);
-		if (optionalAttributeSetter.isEmpty()) {
-			log.debug("Ignoring property {} for entity {} since there is no attribute setter configured.", entry.getKey(), entityId);
-			return Mono.just(objectUnderConstruction);
-		}
-		AttributeSetter setterAnnotation = optionalAttributeSetter.get();
-
-		Class<?> parameterType = getParameterType(setterMethod.getParameterTypes());
+		SetterMappingPlan.SetterEntry setter = optionalSetter.get();
+		AttributeSetter setterAnnotation = setter.annotation();
 
 		return switch (setterAnnotation.value()) {
 			case PROPERTY, GEO_PROPERTY ->
-					handleProperty(entry.getValue(), objectUnderConstruction, optionalSetter.get(), parameterType);
+					handleProperty(entry.getValue(), objectUnderConstruction, setter, setter.genericParameterType());
 			case PROPERTY_LIST ->
-					handlePropertyList(entry.getValue(), objectUnderConstruction, optionalSetter.get(), setterAnnotation);
+					handlePropertyList(entry.getValue(), objectUnderConstruction, setter, setterAnnotation);
 			case RELATIONSHIP ->
-					handleRelationship(entry.getValue(), objectUnderConstruction, relationShipMap, optionalSetter.get(), setterAnnotation);
+					handleRelationship(entry.getValue(), objectUnderConstruction, relationshipContext, setter, setterAnnotation);
 			case RELATIONSHIP_LIST ->
-					handleRelationshipList(entry.getValue(), objectUnderConstruction, relationShipMap, optionalSetter.get(), setterAnnotation);
+					handleRelationshipList(entry.getValue(), objectUnderConstruction, relationshipContext, setter, setterAnnotation);
 			default ->
 					Mono.error(new MappingException(String.format("Received type %s is not supported.", setterAnnotation.value())));
 		};
 	}
 
+	/**
+	 * Synchronously apply the attribute to the object to be constructed. Only supports attributes that are not mapped to
+	 * relationships.
+	 *
+	 * @param entry                   additional properties entry
+	 * @param objectUnderConstruction the new object, to be filled with the values
+	 * @param mappingPlan             the mapping plan of the constructed object's class
+	 * @param entityId                id of the entity
+	 * @param <T>                     class of the constructed object
+	 */
+	private <T> void applyAttribute(Map.Entry<String, AdditionalPropertyVO> entry, T objectUnderConstruction, SetterMappingPlan mappingPlan, String entityId) {
+		Optional<SetterMappingPlan.SetterEntry> optionalSetter = mappingPlan.getSetter(entry.getKey());
+		if (optionalSetter.isEmpty()) {
+			log.debug("Ignoring property {} for entity {} since there is no mapping configured.", entry.getKey(), entityId);
+			return;
+		}
+		SetterMappingPlan.SetterEntry setter = optionalSetter.get();
+		AttributeSetter setterAnnotation = setter.annotation();
+
+		switch (setterAnnotation.value()) {
+			case PROPERTY, GEO_PROPERTY ->
+					setProperty(entry.getValue(), objectUnderConstruction, setter, setter.genericParameterType());
+			case PROPERTY_LIST -> setPropertyList(entry.getValue(), objectUnderConstruction, setter, setterAnnotation);
+			default ->
+					throw new MappingException(String.format("Received type %s is not supported.", setterAnnotation.value()));
+		}
+	}
+
 	private List<UnmappedProperty> toUnmappedProperties(List<Map.Entry<String, AdditionalPropertyVO>> unmappedAdditionalProperties) {
 		return unmappedAdditionalProperties
 				.stream()
@@ -263,7 +613,7 @@ public class EntityVOMapper extends Mapper {
 			// tree so consumers see the original key names.
 			unmappedProperty.setValue(
 					propertyListVO.stream()
-							.map(pvo -> unescapeReservedKeys(pvo.getValue()))
+							.map(pvo -> copyUnescaped(pvo.getValue()))
 							.toList());
 		} else if (unmappedAdditionalProperty.getValue() instanceof RelationshipListVO relationshipListVO) {
 			unmappedProperty.setValue(
@@ -336,7 +686,7 @@ public class EntityVOMapper extends Mapper {
 			// Property.value to avoid brokers consolidating a single-element
 			// array back to a scalar.
 			Map<String, Object> merged = new LinkedHashMap<>();
-			Object rawValue = unescapeReservedKeys(propertyVO.getValue());
+			Object rawValue = copyUnescaped(propertyVO.getValue());
 			if (rawValue instanceof Map<?, ?> baseMap) {
 				for (Map.Entry<?, ?> e : baseMap.entrySet()) {
 					merged.put(String.valueOf(e.getKey()), e.getValue());
@@ -356,7 +706,7 @@ public class EntityVOMapper extends Mapper {
 							// wrap each item into a single-element list). Also unescape
 							// reserved-word keys in the value tree.
 							List<Object> valueList = plvo.stream()
-									.map(pvo -> unescapeReservedKeys(pvo.getValue()))
+									.map(pvo -> copyUnescaped(pvo.getValue()))
 									.toList();
 							return new AbstractMap.SimpleEntry<>(ReservedWordHandler.removeEscape(entry.getKey()), valueList);
 						} else {
@@ -367,7 +717,7 @@ public class EntityVOMapper extends Mapper {
 					.forEach(entry -> merged.put(entry.getKey(), entry.getValue()));
 			return new AbstractMap.SimpleEntry<>(key, merged);
 		} else {
-			Object value = unescapeReservedKeys(propertyVO.getValue());
+			Object value = copyUnescaped(propertyVO.getValue());
 			if (isCollapsedSingletonListItem(propertyVO)) {
 				value = List.of(value);
 			}
@@ -385,14 +735,27 @@ public class EntityVOMapper extends Mapper {
 	 * @param <T>                     class of the object under construction
 	 * @return the single, emitting the objectUnderConstruction
 	 */
-	private <T> Mono<T> handleProperty(AdditionalPropertyVO propertyValue, T objectUnderConstruction, Method setter, Class<?> parameterType) {
+	private <T> Mono<T> handleProperty(AdditionalPropertyVO propertyValue, T objectUnderConstruction, SetterMappingPlan.SetterEntry setter, Type parameterType) {
+		try {
+			return Mono.just(setProperty(propertyValue, objectUnderConstruction, setter, parameterType));
+		} catch (MappingException e) {
+			return Mono.error(e);
+		}
+	}
+
+	/**
+	 * Synchronously set the property on the object under construction.
+	 *
+	 * @throws MappingException if the property cannot be set
+	 */
+	private <T> T setProperty(AdditionalPropertyVO propertyValue, T objectUnderConstruction, SetterMappingPlan.SetterEntry setter, Type parameterType) {
 		if (propertyValue instanceof PropertyVO propertyVO) {
-			return invokeWithExceptionHandling(setter, objectUnderConstruction, objectMapper.convertValue(unescapeReservedKeys(propertyVO.getValue()), parameterType));
+			return invokeSetter(setter.setter(), objectUnderConstruction, convertValue(CompactLists.unwrap(propertyVO.getValue()), parameterType));
 		} else if (propertyValue instanceof GeoPropertyVO geoPropertyVO) {
-			return invokeWithExceptionHandling(setter, objectUnderConstruction, objectMapper.convertValue(unescapeReservedKeys(geoPropertyVO.getValue()), parameterType));
+			return invokeSetter(setter.setter(), objectUnderConstruction, convertValue(geoPropertyVO.getValue(), parameterType));
 		} else {
 			log.error("Mapping exception");
-			return Mono.error(new MappingException(String.format("The attribute is not a valid property: %s ", propertyValue)));
+			throw new MappingException(String.format("The attribute is not a valid property: %s ", propertyValue));
 		}
 	}
 
@@ -405,30 +768,43 @@ public class EntityVOMapper extends Mapper {
 	 * @param <T>                     class of the object under construction
 	 * @return the single, emitting the objectUnderConstruction
 	 */
-	private <T> Mono<T> handlePropertyList(AdditionalPropertyVO propertyListObject, T objectUnderConstruction, Method setter, AttributeSetter setterAnnotation) {
+	private <T> Mono<T> handlePropertyList(AdditionalPropertyVO propertyListObject, T objectUnderConstruction, SetterMappingPlan.SetterEntry setter, AttributeSetter setterAnnotation) {
+		try {
+			return Mono.just(setPropertyList(propertyListObject, objectUnderConstruction, setter, setterAnnotation));
+		} catch (MappingException e) {
+			return Mono.error(e);
+		}
+	}
+
+	/**
+	 * Synchronously set the property-list on the object under construction.
+	 *
+	 * @throws MappingException if the property-list cannot be set
+	 */
+	private <T> T setPropertyList(AdditionalPropertyVO propertyListObject, T objectUnderConstruction, SetterMappingPlan.SetterEntry setter, AttributeSetter setterAnnotation) {
 		if (propertyListObject instanceof PropertyListVO propertyVOS) {
-			return invokeWithExceptionHandling(setter, objectUnderConstruction, propertyListToTargetClass(propertyVOS, setterAnnotation.targetClass()));
+			return invokeSetter(setter.setter(), objectUnderConstruction, propertyListToTargetClass(propertyVOS, setterAnnotation.targetClass()));
 		} else if (propertyListObject instanceof PropertyVO propertyVO) {
 			//we need special handling here, since we have no real property lists(see NGSI-LD issue)
 			// TODO: remove as soon as ngsi-ld does properly support that.
 			if (propertyVO.getValue() instanceof List propertyList) {
-				return invokeWithExceptionHandling(setter, objectUnderConstruction, propertyListToTargetClass(objectMapper.convertValue(propertyList, PropertyListVO.class), setterAnnotation.targetClass()));
+				return invokeSetter(setter.setter(), objectUnderConstruction, propertyListToTargetClass(valueConverters.convert(propertyList, PropertyListVO.class), setterAnnotation.targetClass()));
 			}
 			PropertyListVO propertyVOS = new PropertyListVO();
 			Optional.ofNullable(propertyVO.getValue())
 					.map(pvo -> {
 						try {
-							return objectMapper.convertValue(pvo, PropertyVO.class);
+							return valueConverters.convert(pvo, PropertyVO.class);
 						} catch (Exception e) {
 							log.debug("The value cant be converted to a PropertyVO.", e);
 							return propertyVO;
 						}
 					})
 					.ifPresent(propertyVOS::add);
-			return invokeWithExceptionHandling(setter, objectUnderConstruction, propertyListToTargetClass(propertyVOS, setterAnnotation.targetClass()));
+			return invokeSetter(setter.setter(), objectUnderConstruction, propertyListToTargetClass(propertyVOS, setterAnnotation.targetClass()));
 			// in case of single element lists, they are returned as a flat property
 		} else {
-			return Mono.error(new MappingException(String.format("The attribute is not a valid property list: %v ", propertyListObject)));
+			throw new MappingException(String.format("The attribute is not a valid property list: %v ", propertyListObject));
 		}
 	}
 
@@ -437,13 +813,13 @@ public class EntityVOMapper extends Mapper {
 	 *
 	 * @param attributeValue          the entry containing the relationship-list
 	 * @param objectUnderConstruction the object under construction
-	 * @param relationShipMap         a map containing the pre-evaluated relationships
+	 * @param relationshipContext     context containing the pre-evaluated relationships
 	 * @param setter                  the setter to be used for the property
 	 * @param setterAnnotation        attribute setter annotation on the method
 	 * @param <T>                     class of the objectUnderConstruction
 	 * @return the single, emitting the objectUnderConstruction
 	 */
-	private <T> Mono<T> handleRelationshipList(AdditionalPropertyVO attributeValue, T objectUnderConstruction, Map<String, EntityVO> relationShipMap, Method setter, AttributeSetter setterAnnotation) {
+	private <T> Mono<T> handleRelationshipList(AdditionalPropertyVO attributeValue, T objectUnderConstruction, RelationshipContext relationshipContext, SetterMappingPlan.SetterEntry setter, AttributeSetter setterAnnotation) {
 		Class<?> targetClass = setterAnnotation.targetClass();
 		if (setterAnnotation.fromProperties()) {
 			Optional<RelationshipVO> optionalRelationshipVO = getRelationshipFromProperty(attributeValue);
@@ -465,8 +841,15 @@ public class EntityVOMapper extends Mapper {
 			} else {
 				return Mono.error(new MappingException(String.format("Value of the relationship %s is invalid.", attributeValue)));
 			}
+		} else if (setter.isLazy()) {
+			List<LazyRelationship<?>> lazyRelationships = getRelationshipsFromRelationshipObject(attributeValue)
+					.stream()
+					.filter(relationshipVO -> relationshipVO.getObject() != null)
+					.<LazyRelationship<?>>map(relationshipVO -> getLazyRelationship(relationshipVO, targetClass, relationshipContext))
+					.toList();
+			return invokeWithExceptionHandling(setter, objectUnderConstruction, lazyRelationships);
 		} else {
-			return relationshipListToTargetClass(attributeValue, targetClass, relationShipMap)
+			return relationshipListToTargetClass(attributeValue, targetClass, relationshipContext)
 					.defaultIfEmpty(List.of())
 					// we return the constructed object, since invoke most likely returns null, which is not allowed on mapper functions
 					.flatMap(relatedEntities -> invokeWithExceptionHandling(setter, objectUnderConstruction, relatedEntities));
@@ -478,21 +861,23 @@ public class EntityVOMapper extends Mapper {
 	 *
 	 * @param relationShip            the object containing the relationship
 	 * @param objectUnderConstruction the object under construction
-	 * @param relationShipMap         a map containing the pre-evaluated relationships
+	 * @param relationshipContext     context containing the pre-evaluated relationships
 	 * @param setter                  the setter to be used for the property
 	 * @param setterAnnotation        attribute setter annotation on the method
 	 * @param <T>                     class of the objectUnderConstruction
 	 * @return the single, emitting the objectUnderConstruction
 	 */
-	private <T> Mono<T> handleRelationship(AdditionalPropertyVO relationShip, T objectUnderConstruction, Map<String, EntityVO> relationShipMap, Method setter, AttributeSetter setterAnnotation) {
+	private <T> Mono<T> handleRelationship(AdditionalPropertyVO relationShip, T objectUnderConstruction, RelationshipContext relationshipContext, SetterMappingPlan.SetterEntry setter, AttributeSetter setterAnnotation) {
 		Class<?> targetClass = setterAnnotation.targetClass();
 		if (relationShip instanceof RelationshipVO relationshipVO) {
 			if (setterAnnotation.fromProperties()) {
 				return relationshipFromProperties(relationshipVO, targetClass)
 						// we return the constructed object, since invoke most likely returns null, which is not allowed on mapper functions
 						.flatMap(relatedEntity -> invokeWithExceptionHandling(setter, objectUnderConstruction, relatedEntity));
+			} else if (setter.isLazy()) {
+				return invokeWithExceptionHandling(setter, objectUnderConstruction, getLazyRelationship(relationshipVO, targetClass, relationshipContext));
 			} else {
-				return getObjectFromRelationship(relationshipVO, targetClass, relationShipMap, relationshipVO.getAdditionalProperties())
+				return getObjectFromRelationship(relationshipVO, targetClass, relationshipContext, relationshipVO.getAdditionalProperties())
 						// we return the constructed object, since invoke most likely returns null, which is not allowed on mapper functions
 						.flatMap(relatedEntity -> invokeWithExceptionHandling(setter, objectUnderConstruction, relatedEntity));
 			}
@@ -502,14 +887,36 @@ public class EntityVOMapper extends Mapper {
 	}
 
 	/**
-	 * Invoke the given method and handle potential exceptions.
+	 * Invoke the given setter and handle potential exceptions.
 	 */
-	private <T> Mono<T> invokeWithExceptionHandling(Method invocationMethod, T objectUnderConstruction, Object... invocationArgs) {
+	private <T> Mono<T> invokeWithExceptionHandling(SetterMappingPlan.SetterEntry setterEntry, T objectUnderConstruction, Object invocationArg) {
+		return invokeWithExceptionHandling(setterEntry.setter(), objectUnderConstruction, invocationArg);
+	}
+
+	/**
+	 * Invoke the given setter and handle potential exceptions.
+	 */
+	private <T> Mono<T> invokeWithExceptionHandling(Accessors.Setter setter, T objectUnderConstruction, Object invocationArg) {
 		try {
-			invocationMethod.invoke(objectUnderConstruction, invocationArgs);
-			return Mono.just(objectUnderConstruction);
-		} catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
-			return Mono.error(new MappingException(String.format("Was not able to invoke method %s.", invocationMethod.getName()), e));
+			return Mono.just(invokeSetter(setter, objectUnderConstruction, invocationArg));
+		} catch (MappingException e) {
+			return Mono.error(e);
+		}
+	}
+
+	/**
+	 * Synchronously invoke the given setter.
+	 *
+	 * @throws MappingException if the invocation fails
+	 */
+	private <T> T invokeSetter(Accessors.Setter setter, T objectUnderConstruction, Object invocationArg) {
+		try {
+			setter.set(objectUnderConstruction, invocationArg);
+			return objectUnderConstruction;
+		} catch (MappingException e) {
+			throw e;
+		} catch (InvocationTargetException | RuntimeException e) {
+			throw new MappingException(String.format("Was not able to invoke method %s.", setter.method().getName()), e);
 		}
 	}
 
@@ -525,24 +932,15 @@ public class EntityVOMapper extends Mapper {
 		try {
 			String entityID = relationshipVO.getObject().toString();
 
-			Constructor<T> objectConstructor = targetClass.getDeclaredConstructor(String.class);
-			T constructedObject = objectConstructor.newInstance(entityID);
+			SetterMappingPlan mappingPlan = SetterMappingPlan.forClass(targetClass);
+			T constructedObject = newInstance(mappingPlan, targetClass, entityID);
 
-			Map<String, Method> attributeSetters = getAttributeSetterMethodMap(constructedObject);
+			return Mono.zip(mappingPlan.getSetters().stream()
+					.map(setterEntry -> {
+						AttributeSetter setterAnnotation = setterEntry.annotation();
+						String field = setterAnnotation.targetName();
 
-			return Mono.zip(attributeSetters.entrySet().stream()
-					.map(methodEntry -> {
-						String field = methodEntry.getKey();
-						Method setterMethod = methodEntry.getValue();
-						Optional<AttributeSetter> optionalAttributeSetterAnnotation = getAttributeSetterAnnotation(setterMethod);
-						if (optionalAttributeSetterAnnotation.isEmpty()) {
-							// no setter for the field, can be ignored
-							log.debug("No setter defined for field {}", field);
-							return Mono.just(constructedObject);
-						}
-						AttributeSetter setterAnnotation = optionalAttributeSetterAnnotation.get();
-
-						Optional<AdditionalPropertyVO> optionalProperty = switch (methodEntry.getKey()) {
+						Optional<AdditionalPropertyVO> optionalProperty = switch (field) {
 							case RelationshipVO.JSON_PROPERTY_OBSERVED_AT ->
 									Optional.ofNullable(relationshipVO.getObservedAt()).map(this::propertyVOFromValue);
 							case RelationshipVO.JSON_PROPERTY_CREATED_AT ->
@@ -564,16 +962,16 @@ public class EntityVOMapper extends Mapper {
 						return optionalProperty.map(attributeValue ->
 								switch (setterAnnotation.value()) {
 									case PROPERTY, GEO_PROPERTY ->
-											handleProperty(attributeValue, constructedObject, setterMethod, setterAnnotation.targetClass());
+											handleProperty(attributeValue, constructedObject, setterEntry, setterAnnotation.targetClass());
 									case RELATIONSHIP ->
-											getRelationshipMap(relationshipVO.getAdditionalProperties(), targetClass)
-													.map(rm -> handleRelationship(attributeValue, constructedObject, rm, setterMethod, setterAnnotation));
+											retrieveRelationships(List.of(new RelationshipSource(relationshipVO.getAdditionalProperties(), targetClass)))
+													.map(rm -> handleRelationship(attributeValue, constructedObject, RelationshipContext.of(rm, new LazyRelationshipLoader(entitiesRepository)), setterEntry, setterAnnotation));
 									//resolve objects;
 									case RELATIONSHIP_LIST ->
-											getRelationshipMap(relationshipVO.getAdditionalProperties(), targetClass)
-													.map(rm -> handleRelationshipList(attributeValue, constructedObject, rm, setterMethod, setterAnnotation));
+											retrieveRelationships(List.of(new RelationshipSource(relationshipVO.getAdditionalProperties(), targetClass)))
+													.map(rm -> handleRelationshipList(attributeValue, constructedObject, RelationshipContext.of(rm, new LazyRelationshipLoader(entitiesRepository)), setterEntry, setterAnnotation));
 									case PROPERTY_LIST ->
-											handlePropertyList(attributeValue, constructedObject, setterMethod, setterAnnotation);
+											handlePropertyList(attributeValue, constructedObject, setterEntry, setterAnnotation);
 									default ->
 											Mono.error(new MappingException(String.format("Received type %s is not supported.", setterAnnotation.value())));
 								}).orElse(Mono.just(constructedObject));
@@ -582,63 +980,60 @@ public class EntityVOMapper extends Mapper {
 
 		} catch (NoSuchMethodException e) {
 			return Mono.error(new MappingException(String.format("The class %s does not declare the required String id constructor.", targetClass)));
-		} catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+		} catch (InvocationTargetException e) {
 			return Mono.error(new MappingException(String.format("Was not able to create instance of %s.", targetClass), e));
 		}
 	}
 
 	/**
-	 * Returns a list of all entityIDs that are defined as relationships from the given entity.
+	 * Returns all relationships to be resolved for the given properties, together with the class of their targets.
 	 *
 	 * @param additionalProperties map of the properties to evaluate
 	 * @param targetClass          target class of the mapping
 	 * @param <T>                  the class
-	 * @return a list of uris
-	 */
-	private <T> List<URI> getRelationshipObjects(Map<String, AdditionalPropertyVO> additionalProperties, Class<T> targetClass) {
-		return Arrays.stream(targetClass.getMethods())
-				.map(this::getAttributeSetterAnnotation)
-				.filter(Optional::isPresent)
-				.map(Optional::get)
-				.filter(a -> (a.value().equals(AttributeType.RELATIONSHIP) || a.value().equals(AttributeType.RELATIONSHIP_LIST)))
-				// we don't need to retrieve entities that should be filled from the properties.
-				.filter(a -> !a.fromProperties())
-				.flatMap(attributeSetter -> getEntityURIsByAttributeSetter(attributeSetter, additionalProperties).stream())
+	 * @return a list of relationship targets
+	 */
+	private <T> List<RelationshipTarget> getRelationshipTargets(Map<String, AdditionalPropertyVO> additionalProperties, Class<T> targetClass) {
+		if (additionalProperties == null) {
+			return List.of();
+		}
+		return SetterMappingPlan.forClass(targetClass)
+				.getRelationshipSetters()
+				.stream()
+				.flatMap(attributeSetter -> getRelationshipsByAttributeSetter(attributeSetter, additionalProperties).stream()
+						.map(relationshipVO -> new RelationshipTarget(relationshipVO, attributeSetter.targetClass())))
 				.toList();
 
 	}
 
 	/**
-	 * Evaluate a properties map to get all referenced entity ids
+	 * Evaluate a properties map to get all relationships
 	 *
 	 * @param attributeSetter the attribute setter annotation
 	 * @param propertiesMap   the properties map to check
-	 * @return a list of entity ids
+	 * @return a list of relationships
 	 */
-	private List<URI> getEntityURIsByAttributeSetter(AttributeSetter attributeSetter, Map<String, AdditionalPropertyVO> propertiesMap) {
+	private List<RelationshipVO> getRelationshipsByAttributeSetter(AttributeSetter attributeSetter, Map<String, AdditionalPropertyVO> propertiesMap) {
 		return Optional.ofNullable(propertiesMap.get(attributeSetter.targetName()))
-				.map(this::getURIsFromRelationshipObject)
+				.map(this::getRelationshipsFromRelationshipObject)
 				.orElseGet(List::of);
 	}
 
 	/**
-	 * Evaluate a concrete object of a realitonship. If its a list of objects, get the ids of all entities.
+	 * Evaluate a concrete object of a realitonship. If its a list of objects, get all of them.
 	 *
 	 * @param additionalPropertyVO the object to evaluate
-	 * @return a list of all referenced ids
+	 * @return a list of all contained relationships
 	 */
-	private List<URI> getURIsFromRelationshipObject(AdditionalPropertyVO additionalPropertyVO) {
+	private List<RelationshipVO> getRelationshipsFromRelationshipObject(AdditionalPropertyVO additionalPropertyVO) {
 		Optional<RelationshipVO> optionalRelationshipVO = getRelationshipFromProperty(additionalPropertyVO);
 		if (optionalRelationshipVO.isPresent()) {
-			// List.of() cannot be used, since we need a mutable list
-			List<URI> uriList = new ArrayList<>();
-			uriList.add(optionalRelationshipVO.get().getObject());
-			return uriList;
+			return List.of(optionalRelationshipVO.get());
 		}
 
 		Optional<RelationshipListVO> optionalRelationshipListVO = getRelationshipListFromProperty(additionalPropertyVO);
 		if (optionalRelationshipListVO.isPresent()) {
-			return optionalRelationshipListVO.get().stream().flatMap(listEntry -> getURIsFromRelationshipObject(listEntry).stream()).toList();
+			return optionalRelationshipListVO.get().stream().flatMap(listEntry -> getRelationshipsFromRelationshipObject(listEntry).stream()).toList();
 		}
 		return List.of();
 	}
@@ -651,17 +1046,17 @@ public class EntityVOMapper extends Mapper {
 	 * @param <T>         the type
 	 * @return a list of objects, mapping the relationship
 	 */
-	private <T> Mono<List<T>> relationshipListToTargetClass(AdditionalPropertyVO entry, Class<T> targetClass, Map<String, EntityVO> relationShipEntitiesMap) {
+	private <T> Mono<List<T>> relationshipListToTargetClass(AdditionalPropertyVO entry, Class<T> targetClass, RelationshipContext relationshipContext) {
 
 		Optional<RelationshipVO> optionalRelationshipVO = getRelationshipFromProperty(entry);
 		if (optionalRelationshipVO.isPresent()) {
-			return getObjectFromRelationship(optionalRelationshipVO.get(), targetClass, relationShipEntitiesMap, optionalRelationshipVO.get().getAdditionalProperties())
+			return getObjectFromRelationship(optionalRelationshipVO.get(), targetClass, relationshipContext, optionalRelationshipVO.get().getAdditionalProperties())
 					.map(List::of);
 		}
 
 		Optional<RelationshipListVO> optionalRelationshipListVO = getRelationshipListFromProperty(entry);
 		if (optionalRelationshipListVO.isPresent()) {
-			return zipToList(optionalRelationshipListVO.get().stream(), targetClass, relationShipEntitiesMap);
+			return zipToList(optionalRelationshipListVO.get().stream(), targetClass, relationshipContext);
 		}
 		return Mono.just(List.of());
 	}
@@ -672,14 +1067,14 @@ public class EntityVOMapper extends Mapper {
 		} else if ((additionalPropertyVO instanceof PropertyVO propertyVO && ((PropertyVO) additionalPropertyVO).getValue() instanceof List<?> propertyListVO && !propertyListVO.isEmpty() && isRelationshipList(propertyVO))) {
 			RelationshipListVO relationshipListVO = new RelationshipListVO();
 			propertyListVO.stream()
-					.map(value -> objectMapper.convertValue(value, RelationshipVO.class))
+					.map(value -> valueConverters.convert(value, RelationshipVO.class))
 					.forEach(relationshipListVO::add);
 			return Optional.of(relationshipListVO);
 
 		} else if (additionalPropertyVO instanceof PropertyListVO propertyListVO && !propertyListVO.isEmpty() && isRelationship(propertyListVO.get(0))) {
 			RelationshipListVO relationshipListVO = new RelationshipListVO();
 			propertyListVO.stream()
-					.map(propertyVO -> objectMapper.convertValue(propertyVO.getValue(), RelationshipVO.class))
+					.map(propertyVO -> valueConverters.convert(propertyVO.getValue(), RelationshipVO.class))
 					.forEach(relationshipListVO::add);
 			return Optional.of(relationshipListVO);
 		}
@@ -690,7 +1085,7 @@ public class EntityVOMapper extends Mapper {
 		if (additionalPropertyVO instanceof RelationshipVO relationshipVO) {
 			return Optional.of(relationshipVO);
 		} else if (additionalPropertyVO instanceof PropertyVO propertyVO && isRelationship(propertyVO)) {
-			return Optional.of(objectMapper.convertValue(propertyVO.getValue(), RelationshipVO.class));
+			return Optional.of(valueConverters.convert(propertyVO.getValue(), RelationshipVO.class));
 		}
 		return Optional.empty();
 	}
@@ -699,13 +1094,6 @@ public class EntityVOMapper extends Mapper {
 		return testProperty.getValue() instanceof Map<?, ?> valuesMap && valuesMap.get("type").equals(PropertyTypeVO.RELATIONSHIP.getValue());
 	}
 
-	/**
-	 * Check if the given method handles access to the unmapped properties
-	 */
-	private boolean isUnmappedPropertiesSetter(Method method) {
-		return Arrays.stream(method.getAnnotations()).anyMatch(a -> a.annotationType() == UnmappedPropertiesSetter.class);
-	}
-
 	private boolean isRelationshipList(PropertyVO testProperty) {
 		return testProperty.getValue() instanceof List<?> valuesList &&
 				valuesList.stream()
@@ -722,18 +1110,16 @@ public class EntityVOMapper extends Mapper {
 	 *
 	 * @param relationshipVOStream    the relationships to evaluate
 	 * @param targetClass             target class of the relationship object
-	 * @param relationShipEntitiesMap map of the preevaluated relationship entities
+	 * @param relationshipContext     context containing the preevaluated relationship entities
 	 * @param <T>                     target class of the relationship
 	 * @return a single emitting the full list
 	 */
-	private <T> Mono<List<T>> zipToList(Stream<RelationshipVO> relationshipVOStream, Class<T> targetClass, Map<String, EntityVO> relationShipEntitiesMap) {
+	private <T> Mono<List<T>> zipToList(Stream<RelationshipVO> relationshipVOStream, Class<T> targetClass, RelationshipContext relationshipContext) {
 		return Mono.zip(
 				relationshipVOStream.map(RelationshipVO::getObject)
 						.filter(Objects::nonNull)
-						.map(URI::toString)
-						.map(relationShipEntitiesMap::get)
-						.filter(Objects::nonNull)
-						.map(entity -> fromEntityVO(entity, targetClass))
+						.map(entityId -> getRelatedObject(entityId, targetClass, relationshipContext, null))
+						.flatMap(Optional::stream)
 						.toList(),
 				oList -> Arrays.stream(oList).map(targetClass::cast).toList()
 		);
@@ -747,10 +1133,11 @@ public class EntityVOMapper extends Mapper {
 	 * @param <T>         the type
 	 * @return a list of objects, mapping the relationship
 	 */
+	@SuppressWarnings("unchecked")
 	private <T> List<T> propertyListToTargetClass(PropertyListVO propertyVOS, Class<T> targetClass) {
 		return propertyVOS.stream().map(propertyEntry -> {
 			try {
-				return objectMapper.convertValue(unescapeReservedKeys(propertyEntry.getValue()), targetClass);
+				return (T) convertValue(propertyEntry.getValue(), targetClass);
 			} catch (IllegalArgumentException e) {
 				return null;
 			}
@@ -772,28 +1159,109 @@ public class EntityVOMapper extends Mapper {
 	 * field on the target class and the value is silently dropped.
 	 *
 	 * <p>Walk the tree once and surface the original names so the
-	 * {@code objectMapper.convertValue(…, userPojoClass)} call sites can resolve
-	 * them. Non-Map/List values are returned as-is.
+	 * conversions into the user POJO can resolve
+	 * them. Non-Map/List values are returned as-is. Since escaped keys are
+	 * rare, only the maps and lists on the path to an escaped key are copied,
+	 * everything else (including the whole tree, if no key is escaped) is
+	 * returned untouched. Thus, the result may share maps and lists with the
+	 * entity and must not be handed out to users as it is, see
+	 * {@link #copyUnescaped(Object)} and {@link #convertValue(Object, Type)}.
 	 */
 	private static Object unescapeReservedKeys(Object value) {
+		if (value instanceof Map<?, ?> map) {
+			return unescapeReservedKeys(map);
+		}
+		if (value instanceof List<?> list) {
+			return unescapeReservedKeys(list);
+		}
+		return value;
+	}
+
+	private static Map<?, ?> unescapeReservedKeys(Map<?, ?> map) {
+		Map<String, Object> result = null;
+		int index = 0;
+		for (Map.Entry<?, ?> e : map.entrySet()) {
+			Object entryValue = e.getValue();
+			Object unescapedValue = unescapeReservedKeys(entryValue);
+			if (result == null && (unescapedValue != entryValue || isEscapedKey(e.getKey()))) {
+				// first change, copy all entries before it
+				result = new LinkedHashMap<>(map.size());
+				Iterator<? extends Map.Entry<?, ?>> unchangedEntries = map.entrySet().iterator();
+				for (int i = 0; i < index; i++) {
+					Map.Entry<?, ?> unchangedEntry = unchangedEntries.next();
+					result.put(String.valueOf(unchangedEntry.getKey()), unchangedEntry.getValue());
+				}
+			}
+			if (result != null) {
+				result.put(ReservedWordHandler.removeEscape(String.valueOf(e.getKey())), unescapedValue);
+			}
+			index++;
+		}
+		return result == null ? map : result;
+	}
+
+	private static List<?> unescapeReservedKeys(List<?> list) {
+		List<Object> result = null;
+		int index = 0;
+		for (Object item : list) {
+			Object unescapedItem = unescapeReservedKeys(item);
+			if (result == null && unescapedItem != item) {
+				// first change, copy all items before it
+				result = new ArrayList<>(list.size());
+				result.addAll(list.subList(0, index));
+			}
+			if (result != null) {
+				result.add(unescapedItem);
+			}
+			index++;
+		}
+		return result == null ? list : result;
+	}
+
+	/**
+	 * Unescape the keys of the value tree into a new tree. Used for values
+	 * handed out to users, which must not share maps, lists or arrays with the
+	 * entity, since entities can be shared(f.e. cached) between mappings.
+	 */
+	private static Object copyUnescaped(Object value) {
 		if (value instanceof Map<?, ?> map) {
 			Map<String, Object> result = new LinkedHashMap<>(map.size());
 			for (Map.Entry<?, ?> e : map.entrySet()) {
-				String key = String.valueOf(e.getKey());
-				result.put(ReservedWordHandler.removeEscape(key), unescapeReservedKeys(e.getValue()));
+				result.put(ReservedWordHandler.removeEscape(String.valueOf(e.getKey())), copyUnescaped(e.getValue()));
 			}
 			return result;
 		}
 		if (value instanceof List<?> list) {
 			List<Object> result = new ArrayList<>(list.size());
 			for (Object item : list) {
-				result.add(unescapeReservedKeys(item));
+				result.add(copyUnescaped(item));
 			}
 			return result;
 		}
+		if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object result = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, result, 0, length);
+			return result;
+		}
 		return value;
 	}
 
+	/**
+	 * Unescape the value and convert it to the target type. Conversions through
+	 * jackson create new objects, only if the value is used as it is, it gets
+	 * copied.
+	 */
+	private Object convertValue(Object value, Type targetType) {
+		Object unescapedValue = unescapeReservedKeys(value);
+		Object convertedValue = valueConverters.convert(unescapedValue, targetType);
+		return convertedValue == unescapedValue ? copyUnescaped(convertedValue) : convertedValue;
+	}
+
+	private static boolean isEscapedKey(Object key) {
+		return key instanceof String stringKey && ReservedWordHandler.isReservedProperty(stringKey);
+	}
+
 	/**
 	 * Retrieve the object from a relationship and return it as a java object of class T. All sub relationships will be evaluated, too.
 	 *
@@ -802,75 +1270,109 @@ public class EntityVOMapper extends Mapper {
 	 * @param <T>            the class
 	 * @return the actual object
 	 */
-	private <T> Mono<T> getObjectFromRelationship(RelationshipVO relationshipVO, Class<T> targetClass, Map<String, EntityVO> relationShipEntitiesMap, Map<String, AdditionalPropertyVO> additionalPropertyVOMap) {
-		Optional<EntityVO> optionalEntityVO = Optional.ofNullable(relationShipEntitiesMap.get(relationshipVO.getObject().toString()));
-		if (optionalEntityVO.isEmpty() && !mappingProperties.isStrictRelationships()) {
-			try {
-				Constructor<T> objectConstructor = targetClass.getDeclaredConstructor(String.class);
-				T theObject = objectConstructor.newInstance(relationshipVO.getObject().toString());
-				// return the empty object
-				return Mono.just(theObject);
-			} catch (InvocationTargetException | InstantiationException | IllegalAccessException |
-					 NoSuchMethodException e) {
-				return Mono.error(new MappingException(String.format("Was not able to instantiate %s with a string parameter.", targetClass), e));
-			}
-		} else if (optionalEntityVO.isEmpty()) {
-			return Mono.error(new MappingException(String.format("Was not able to resolve the relationship %s", relationshipVO.getObject())));
+	private <T> Mono<T> getObjectFromRelationship(RelationshipVO relationshipVO, Class<T> targetClass, RelationshipContext relationshipContext, Map<String, AdditionalPropertyVO> additionalPropertyVOMap) {
+		Optional<Mono<T>> optionalObject = getRelatedObject(relationshipVO.getObject(), targetClass, relationshipContext, additionalPropertyVOMap);
+		if (optionalObject.isPresent()) {
+			return optionalObject.get();
+		} else if (!mappingProperties.isStrictRelationships()) {
+			// return the empty object
+			return newIdOnlyInstance(targetClass, relationshipVO.getObject().toString());
 		}
-
-		var entityVO = optionalEntityVO.get();
-		//merge with override properties
-		if (additionalPropertyVOMap != null) {
-			entityVO.getAdditionalProperties().putAll(additionalPropertyVOMap);
-		}
-		return fromEntityVO(entityVO, targetClass);
+		return Mono.error(new MappingException(String.format("Was not able to resolve the relationship %s", relationshipVO.getObject())));
 	}
 
 	/**
-	 * Return the type of the setter's parameter.
+	 * Get the object related with the given id. If the object is already under construction on the current path, it is
+	 * reused to break the cycle. Objects beyond the {@link MappingProperties#getMaxRelationshipDepth()} only contain their
+	 * id.
+	 *
+	 * @param entityId                id of the related entity
+	 * @param targetClass             the target-class of the related object
+	 * @param relationshipContext     context containing the preevaluated relationship entities
+	 * @param additionalPropertyVOMap properties of the relationship, overriding the ones of the entity
+	 * @param <T>                     the class
+	 * @return a single, emitting the related object, empty if the entity was not retrieved
 	 */
-	private Class<?> getParameterType(Class<?>[] arrayOfClasses) {
-		if (arrayOfClasses.length != 1) {
-			throw new MappingException("Setter method should only have one parameter declared.");
+	private <T> Optional<Mono<T>> getRelatedObject(URI entityId, Class<T> targetClass, RelationshipContext relationshipContext, Map<String, AdditionalPropertyVO> additionalPropertyVOMap) {
+		Optional<T> optionalAncestor = relationshipContext.getAncestor(targetClass, entityId.toString());
+		if (optionalAncestor.isPresent()) {
+			return optionalAncestor.map(Mono::just);
 		}
-		return arrayOfClasses[0];
+		if (relationshipContext.getDepth() > mappingProperties.getMaxRelationshipDepth()) {
+			return Optional.of(newIdOnlyInstance(targetClass, entityId.toString()));
+		}
+		return relationshipContext.getEntity(entityId)
+				// overlay with override properties
+				.map(entityVO -> fromEntityVO(entityVO, additionalPropertyVOMap, targetClass, relationshipContext));
 	}
 
 	/**
-	 * Get the setter method for the given property at the entity.
+	 * Create a relationship, that retrieves the related entity on first load. The entity is mapped, including its
+	 * relationships, on load.
+	 *
+	 * @param relationshipVO      the relationship entry
+	 * @param targetClass         the target-class of the related object
+	 * @param relationshipContext context providing the loader for the mapping
+	 * @param <T>                 the class
+	 * @return the lazy relationship
 	 */
-	private <T> Optional<Method> getCorrespondingSetterMethod(T entity, String propertyName) {
-		return getAttributeSettersMethods(entity).stream().filter(m ->
-						getAttributeSetterAnnotation(m)
-								.map(attributeSetter -> attributeSetter.targetName().equals(propertyName)).orElse(false))
-				.findFirst();
+	private <T> LazyRelationship<T> getLazyRelationship(RelationshipVO relationshipVO, Class<T> targetClass, RelationshipContext relationshipContext) {
+		URI entityId = relationshipVO.getObject();
+		LazyRelationshipLoader lazyRelationshipLoader = relationshipContext.getLazyRelationshipLoader();
+		lazyRelationshipLoader.register(entityId, getProjection(targetClass));
+		Mono<T> loader = lazyRelationshipLoader.load(entityId)
+				.flatMap(optionalEntityVO -> {
+					if (optionalEntityVO.isPresent()) {
+						// overlay with override properties
+						return fromEntityVOWithOverrides(optionalEntityVO.get(), relationshipVO.getAdditionalProperties(), targetClass);
+					} else if (!mappingProperties.isStrictRelationships()) {
+						return newIdOnlyInstance(targetClass, entityId.toString());
+					}
+					return Mono.error(new MappingException(String.format("Was not able to resolve the relationship %s", entityId)));
+				});
+		return new LazyRelationship<>(entityId, relationshipVO.getDatasetId(), loader);
 	}
 
 	/**
-	 * Get all attribute setters for the given entity
+	 * Create an object of the target class, only containing the id.
 	 */
-	private <T> List<Method> getAttributeSettersMethods(T entity) {
-		return Arrays.stream(entity.getClass().getMethods()).filter(m -> getAttributeSetterAnnotation(m).isPresent()).toList();
+	private <T> Mono<T> newIdOnlyInstance(Class<T> targetClass, String entityId) {
+		try {
+			return Mono.just(newInstance(SetterMappingPlan.forClass(targetClass), targetClass, entityId));
+		} catch (InvocationTargetException | NoSuchMethodException e) {
+			return Mono.error(new MappingException(String.format("Was not able to instantiate %s with a string parameter.", targetClass), e));
+		}
 	}
 
-	private <T> Optional<Method> getUnmappedPropertiesSetter(T entity) {
-		return Arrays.stream(entity.getClass().getMethods())
-				.filter(this::isUnmappedPropertiesSetter).findAny();
+	/**
+	 * Create a new instance of the target class, using its String id constructor.
+	 */
+	private <T> T newInstance(SetterMappingPlan mappingPlan, Class<T> targetClass, String entityId) throws NoSuchMethodException, InvocationTargetException {
+		Accessors.IdConstructor idConstructor = mappingPlan.getIdConstructor()
+				.orElseThrow(() -> new NoSuchMethodException(String.format("%s.<init>(java.lang.String)", targetClass.getName())));
+		return targetClass.cast(idConstructor.newInstance(entityId));
 	}
 
-	private <T> Map<String, Method> getAttributeSetterMethodMap(T entity) {
-		return Arrays.stream(entity.getClass().getMethods())
-				.filter(m -> getAttributeSetterAnnotation(m).isPresent())
-				.collect(Collectors.toMap(m -> getAttributeSetterAnnotation(m).get().targetName(), m -> m));
+	/**
+	 * Properties to resolve the relationships for.
+	 *
+	 * @param properties  the properties, may be null
+	 * @param targetClass class the properties are mapped to
+	 * @param entityVO    the entity being mapped, null if the properties are not the ones of a mapped entity
+	 */
+	private record RelationshipSource(Map<String, AdditionalPropertyVO> properties, Class<?> targetClass, EntityVO entityVO) {
+
+		RelationshipSource(Map<String, AdditionalPropertyVO> properties, Class<?> targetClass) {
+			this(properties, targetClass, null);
+		}
 	}
 
 	/**
-	 * Get the attribute setter annotation from the given method, if it exists.
+	 * A relationship to be resolved.
+	 *
+	 * @param relationship the relationship
+	 * @param targetClass  class of the related object
 	 */
-	private Optional<AttributeSetter> getAttributeSetterAnnotation(Method m) {
-		return Arrays.stream(m.getAnnotations()).filter(a -> a.annotationType() == AttributeSetter.class)
-				.findFirst()
-				.map(AttributeSetter.class::cast);
+	private record RelationshipTarget(RelationshipVO relationship, Class<?> targetClass) {
 	}
-
 }
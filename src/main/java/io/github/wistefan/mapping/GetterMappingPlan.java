@@ -0,0 +1,199 @@
+package io.github.wistefan.mapping;
+
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.DatasetId;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.RelationshipObject;
+import io.github.wistefan.mapping.annotations.UnmappedPropertiesGetter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable description of how objects of a certain class are read into NGSI-LD attributes. The plan is built once per
+ * class, by scanning the public methods for the mapping annotations, and cached for the lifetime of the class.
+ */
+final class GetterMappingPlan {
+
+	private static final ClassValue<GetterMappingPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected GetterMappingPlan computeValue(Class<?> type) {
+			return new GetterMappingPlan(type);
+		}
+	};
+
+	private final List<Method> entityIdGetters;
+	private final List<Method> entityTypeGetters;
+	private final Accessors.Getter entityIdGetter;
+	private final Accessors.Getter entityTypeGetter;
+	private final Accessors.Getter unmappedPropertiesGetter;
+
+	/**
+	 * Attribute getters by the type of the attribute. Getters for the id, type and unmapped properties are excluded.
+	 */
+	private final Map<AttributeType, List<GetterEntry>> attributeGetters;
+
+	/**
+	 * Names of all attributes the class maps to.
+	 */
+	private final Set<String> attributeNames;
+
+	/**
+	 * Getters of properties to be embedded, in case the object is used as the object of a relationship.
+	 */
+	private final List<GetterEntry> embeddedPropertyGetters;
+
+	private final Accessors.Getter relationshipObjectGetter;
+	private final Accessors.Getter datasetIdGetter;
+
+	private GetterMappingPlan(Class<?> sourceClass) {
+		List<Method> idGetters = new ArrayList<>();
+		List<Method> typeGetters = new ArrayList<>();
+		List<Method> unmappedGetters = new ArrayList<>();
+		Map<AttributeType, List<GetterEntry>> getters = new EnumMap<>(AttributeType.class);
+		List<GetterEntry> embeddedGetters = new ArrayList<>();
+		Method objectGetter = null;
+		Method datasetGetter = null;
+
+		for (Method method : sourceClass.getMethods()) {
+			AttributeGetter attributeGetter = method.getAnnotation(AttributeGetter.class);
+			GetterEntry getterEntry = attributeGetter == null ? null : GetterEntry.of(sourceClass, method, attributeGetter);
+			if (method.isAnnotationPresent(EntityId.class)) {
+				idGetters.add(method);
+			} else if (method.isAnnotationPresent(EntityType.class)) {
+				typeGetters.add(method);
+			} else if (method.isAnnotationPresent(UnmappedPropertiesGetter.class)) {
+				unmappedGetters.add(method);
+			} else if (attributeGetter != null) {
+				getters.computeIfAbsent(attributeGetter.value(), type -> new ArrayList<>())
+						.add(getterEntry);
+			}
+			// we do not support more depth/complexity for embedded properties for now
+			if (attributeGetter != null && attributeGetter.embedProperty() && attributeGetter.value() == AttributeType.PROPERTY) {
+				embeddedGetters.add(getterEntry);
+			}
+			if (objectGetter == null && method.isAnnotationPresent(RelationshipObject.class)) {
+				objectGetter = method;
+			}
+			if (datasetGetter == null && method.isAnnotationPresent(DatasetId.class)) {
+				datasetGetter = method;
+			}
+		}
+
+		getters.replaceAll((type, entries) -> List.copyOf(entries));
+		Set<String> names = new LinkedHashSet<>();
+		getters.values().forEach(entries -> entries.forEach(entry -> names.add(entry.annotation().targetName())));
+		this.entityIdGetters = List.copyOf(idGetters);
+		this.entityTypeGetters = List.copyOf(typeGetters);
+		this.entityIdGetter = idGetters.size() == 1 ? Accessors.getter(sourceClass, idGetters.get(0)) : null;
+		this.entityTypeGetter = typeGetters.size() == 1 ? Accessors.getter(sourceClass, typeGetters.get(0)) : null;
+		this.unmappedPropertiesGetter = unmappedGetters.isEmpty() ? null : Accessors.getter(sourceClass, unmappedGetters.get(0));
+		this.attributeGetters = getters;
+		this.attributeNames = Collections.unmodifiableSet(names);
+		this.embeddedPropertyGetters = List.copyOf(embeddedGetters);
+		this.relationshipObjectGetter = objectGetter == null ? null : Accessors.getter(sourceClass, objectGetter);
+		this.datasetIdGetter = datasetGetter == null ? null : Accessors.getter(sourceClass, datasetGetter);
+	}
+
+	/**
+	 * Return the (cached) plan for the given class.
+	 */
+	static GetterMappingPlan forClass(Class<?> sourceClass) {
+		return PLANS.get(sourceClass);
+	}
+
+	/**
+	 * Check that the class can be mapped to an entity, e.g. declares exactly one id and one type method.
+	 */
+	GetterMappingPlan validateEntity() {
+		if (entityIdGetters.size() != 1) {
+			throw new MappingException(
+					String.format("The provided object declares %s id methods, exactly one is expected.",
+							entityIdGetters.size()));
+		}
+		if (entityTypeGetters.size() != 1) {
+			throw new MappingException(
+					String.format("The provided object declares %s type methods, exactly one is expected.",
+							entityTypeGetters.size()));
+		}
+		return this;
+	}
+
+	/**
+	 * The method providing the entity id. Only valid after {@link #validateEntity()}.
+	 */
+	Accessors.Getter getEntityIdGetter() {
+		return entityIdGetter;
+	}
+
+	/**
+	 * The method providing the entity type. Only valid after {@link #validateEntity()}.
+	 */
+	Accessors.Getter getEntityTypeGetter() {
+		return entityTypeGetter;
+	}
+
+	Optional<Accessors.Getter> getUnmappedPropertiesGetter() {
+		return Optional.ofNullable(unmappedPropertiesGetter);
+	}
+
+	/**
+	 * All attribute getters of the given type.
+	 */
+	List<GetterEntry> getAttributeGetters(AttributeType attributeType) {
+		return attributeGetters.getOrDefault(attributeType, List.of());
+	}
+
+	/**
+	 * Names of all attributes mapped by the attribute getters.
+	 */
+	Set<String> getAttributeNames() {
+		return attributeNames;
+	}
+
+	/**
+	 * Is the attribute mapped by the class, e.g. can it be removed by an object of it? Classes receiving the unmapped
+	 * properties own all attributes of the entity.
+	 */
+	boolean mapsAttribute(String attributeName) {
+		return unmappedPropertiesGetter != null || attributeNames.contains(attributeName);
+	}
+
+	List<GetterEntry> getEmbeddedPropertyGetters() {
+		return embeddedPropertyGetters;
+	}
+
+	Optional<Accessors.Getter> getRelationshipObjectGetter() {
+		return Optional.ofNullable(relationshipObjectGetter);
+	}
+
+	Optional<Accessors.Getter> getDatasetIdGetter() {
+		return Optional.ofNullable(datasetIdGetter);
+	}
+
+	/**
+	 * A single attribute getter of the class.
+	 *
+	 * @param getter     accessor of the getter method
+	 * @param annotation the {@link AttributeGetter} declared on the method
+	 */
+	record GetterEntry(Accessors.Getter getter, AttributeGetter annotation) {
+
+		private static GetterEntry of(Class<?> sourceClass, Method method, AttributeGetter annotation) {
+			return new GetterEntry(Accessors.getter(sourceClass, method), annotation);
+		}
+
+		Method method() {
+			return getter.method();
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package io.github.wistefan.mapping;
+
+import java.net.URI;
+
+/**
+ * URIs consisting of a fixed prefix and an index. The URIs for the first indices are created once and reused.
+ */
+final class IndexedUris {
+
+	private static final int CACHED_INDICES = 128;
+
+	private final String prefix;
+	private final URI[] cachedUris = new URI[CACHED_INDICES];
+
+	IndexedUris(String prefix) {
+		this.prefix = prefix;
+		for (int i = 0; i < CACHED_INDICES; i++) {
+			cachedUris[i] = URI.create(prefix + i);
+		}
+	}
+
+	URI get(int index) {
+		if (index >= 0 && index < CACHED_INDICES) {
+			return cachedUris[index];
+		}
+		return URI.create(prefix + index);
+	}
+}
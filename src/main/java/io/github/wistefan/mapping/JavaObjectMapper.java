@@ -1,58 +1,154 @@
 package io.github.wistefan.mapping;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.wistefan.mapping.annotations.*;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fiware.ngsi.model.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Mapper to handle translation from Java-Objects into NGSI-LD entities.
+ * <p>
+ * The mapper is thread-safe and can be shared: it only holds its configuration, the {@link ObjectMapper}(thread-safe
+ * once configured) and the {@link DatasetIdStrategy}, while the mapping plans are cached per class via
+ * {@link ClassValue}. Custom {@link DatasetIdStrategy}s have to be thread-safe as well.
  */
 @Slf4j
 @Singleton
-@RequiredArgsConstructor
 public class JavaObjectMapper extends Mapper {
 
 	// name of the property containing the ID
 	private static final String ID_PROPERTY = "id";
+	private static final String TYPE_PROPERTY = "type";
+	private static final String CONTEXT_PROPERTY = "@context";
+	private static final String DATASET_ID_PROPERTY = "datasetId";
+
+	// bulk mapping splits into a few chunks per processor, to balance uneven entities without too many tasks
+	private static final int BULK_CHUNKS_PER_PROCESSOR = 4;
+	private static final int MIN_BULK_CHUNK_SIZE = 16;
+
+	// numbers are equal independent of their representation, e.g. 1 as int and 1 as long
+	private static final Comparator<JsonNode> NUMBER_AWARE_COMPARATOR = (n1, n2) -> {
+		if (n1.isNumber() && n2.isNumber()) {
+			return n1.decimalValue().compareTo(n2.decimalValue());
+		}
+		return n1.equals(n2) ? 0 : 1;
+	};
 
 	/**
-	 * URN prefix for synthetic datasetIds attached to each item of a plain-list
+	 * Synthetic datasetIds, by index, attached to each item of a plain-list
 	 * value persisted as a {@code PropertyListVO}. The datasetIds give each item
 	 * the multi-instance Property semantics that NGSI-LD brokers must preserve
 	 * — without them, a single-element array inside {@code Property.value} can
 	 * be compacted to its scalar form on retrieval (JSON-LD compaction).
 	 */
-	private static final String LIST_ITEM_DATASET_ID_PREFIX = "urn:ngsi-ld:dataset:list-item:";
+	private static final IndexedUris LIST_ITEM_DATASET_IDS = new IndexedUris("urn:ngsi-ld:dataset:list-item:");
+
+	/**
+	 * Resolved attribute paths, per class and original path.
+	 */
+	private static final ClassValue<Map<List<String>, NgsiLdAttribute>> ATTRIBUTE_PATHS = new ClassValue<>() {
+		@Override
+		protected Map<List<String>, NgsiLdAttribute> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	private static final int MAX_CACHED_ATTRIBUTE_PATHS = 1024;
 
 	private final MappingProperties mappingProperties;
 	private final ObjectMapper objectMapper;
+	private final DatasetIdStrategy datasetIdStrategy;
+	private final ValueCodecRegistry valueCodecs;
 
 	public static final String NO_MAPPING_DEFINED_FOR_METHOD_TEMPLATE = "No mapping defined for method %s";
 	public static final String WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE = "Was not able invoke method %s on %s";
 
+	public JavaObjectMapper(MappingProperties mappingProperties, ObjectMapper objectMapper) {
+		this(mappingProperties, objectMapper, new ValueCodecRegistry());
+	}
+
+	/**
+	 * Create the mapper with custom codecs for plain values.
+	 */
+	@Inject
+	public JavaObjectMapper(MappingProperties mappingProperties, ObjectMapper objectMapper, ValueCodecRegistry valueCodecs) {
+		this(mappingProperties, objectMapper, DatasetIdStrategies.forType(mappingProperties.getDatasetIdStrategy()), valueCodecs);
+	}
+
+	/**
+	 * Create the mapper with a custom strategy for the datasetIds of property list entries.
+	 */
+	public JavaObjectMapper(MappingProperties mappingProperties, ObjectMapper objectMapper, DatasetIdStrategy datasetIdStrategy) {
+		this(mappingProperties, objectMapper, datasetIdStrategy, new ValueCodecRegistry());
+	}
+
+	/**
+	 * Create the mapper with a custom strategy for the datasetIds of property list entries and custom codecs for plain
+	 * values.
+	 */
+	public JavaObjectMapper(MappingProperties mappingProperties, ObjectMapper objectMapper, DatasetIdStrategy datasetIdStrategy,
+							ValueCodecRegistry valueCodecs) {
+		this.mappingProperties = mappingProperties;
+		this.objectMapper = objectMapper;
+		this.datasetIdStrategy = datasetIdStrategy;
+		this.valueCodecs = valueCodecs;
+	}
+
 
 	/**
 	 * Translate the attribute path for the given object into the path in the ngsi-ld model.
 	 *
 	 * @param attributePath the original path
 	 * @param tClass        class to use for translation
-	 * @return the path in ngsi-ld and the type of the target attribute
+	 * @return the path in ngsi-ld and the type of the target attribute, the path is a copy and can be modified
 	 */
 	public static <T> NgsiLdAttribute getNGSIAttributePath(List<String> attributePath, Class<T> tClass) {
+		NgsiLdAttribute ngsiLdAttribute = getCachedNGSIAttributePath(attributePath, tClass);
+		// the cached attributes are shared, callers get their own path
+		return new NgsiLdAttribute(new ArrayList<>(ngsiLdAttribute.path()), ngsiLdAttribute.type());
+	}
+
+	private static <T> NgsiLdAttribute getCachedNGSIAttributePath(List<String> attributePath, Class<T> tClass) {
+		Map<List<String>, NgsiLdAttribute> classAttributePaths = ATTRIBUTE_PATHS.get(tClass);
+		NgsiLdAttribute ngsiLdAttribute = classAttributePaths.get(attributePath);
+		if (ngsiLdAttribute != null) {
+			return ngsiLdAttribute;
+		}
+		NgsiLdAttribute resolvedAttribute = resolveNGSIAttributePath(attributePath, tClass);
+		ngsiLdAttribute = new NgsiLdAttribute(List.copyOf(resolvedAttribute.path()), resolvedAttribute.type());
+		// the paths are provided by the callers, only a limited number is cached to not grow unbounded
+		if (classAttributePaths.size() < MAX_CACHED_ATTRIBUTE_PATHS) {
+			classAttributePaths.putIfAbsent(List.copyOf(attributePath), ngsiLdAttribute);
+		}
+		return ngsiLdAttribute;
+	}
+
+	private static <T> NgsiLdAttribute resolveNGSIAttributePath(List<String> attributePath, Class<T> tClass) {
 		List<String> ngsiAttributePath = new ArrayList<>();
 		QueryAttributeType type = QueryAttributeType.STRING;
 		String currentAttribute = attributePath.get(0);
@@ -79,11 +175,11 @@ public class JavaObjectMapper extends Mapper {
 				if (attributePath.size() > 1) {
 					List<String> subPaths = attributePath.subList(1, attributePath.size());
 					if (setterAnnotation.targetClass() != Object.class) {
-						NgsiLdAttribute subAttribute = getNGSIAttributePath(subPaths, setterAnnotation.targetClass());
+						NgsiLdAttribute subAttribute = getCachedNGSIAttributePath(subPaths, setterAnnotation.targetClass());
 						ngsiAttributePath.addAll(subAttribute.path());
 						type = subAttribute.type();
 					} else {
-						NgsiLdAttribute subAttribute = getNGSIAttributePath(subPaths, getterMethod.getReturnType());
+						NgsiLdAttribute subAttribute = getCachedNGSIAttributePath(subPaths, getterMethod.getReturnType());
 						ngsiAttributePath.addAll(subAttribute.path());
 						type = subAttribute.type();
 					}
@@ -130,40 +226,13 @@ public class JavaObjectMapper extends Mapper {
 	}
 
 	public static <T> Stream<Method> getSetterMethodByName(Class<T> tClass, String propertyName) {
-		return Arrays.stream(tClass.getMethods())
-				.filter(m -> getCorrespondingSetterFieldName(m.getName()).equals(propertyName));
+		return PropertyMethodIndex.forClass(tClass).getSetters(propertyName).stream();
 	}
 
 	public static <T> Stream<Method> getGetterMethodByName(Class<T> tClass, String propertyName) {
-		return Arrays.stream(tClass.getMethods())
-				.filter(m -> getCorrespondingGetterFieldName(m.getName()).equals(propertyName));
-	}
-
-	private static String getCorrespondingGetterFieldName(String methodName) {
-		var fieldName = "";
-		if (methodName.matches("^get[A-Z].*")) {
-			fieldName = methodName.replaceFirst("get", "");
-		} else if (methodName.matches("^is[A-Z].*")) {
-			fieldName = methodName.replaceFirst("is", "");
-		} else {
-			log.debug("The method {} is neither a get or is.", methodName);
-			return fieldName;
-		}
-		return fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
+		return PropertyMethodIndex.forClass(tClass).getGetters(propertyName).stream();
 	}
 
-	private static String getCorrespondingSetterFieldName(String methodName) {
-		var fieldName = "";
-		if (methodName.matches("^set[A-Z].*")) {
-			fieldName = methodName.replaceFirst("set", "");
-		} else if (methodName.matches("^is[A-Z].*")) {
-			fieldName = methodName.replaceFirst("is", "");
-		} else {
-			log.debug("The method {} is neither a set or is.", methodName);
-			return fieldName;
-		}
-		return fieldName.substring(0, 1).toLowerCase() + fieldName.substring(1);
-	}
 
 	/**
 	 * Translate the given object into an Entity.
@@ -173,74 +242,285 @@ public class JavaObjectMapper extends Mapper {
 	 * @return the NGSI-LD entity object
 	 */
 	public <T> EntityVO toEntityVO(T entity) {
+		return buildEntity(entity, getEntityMappingPlan(entity));
+	}
+
+	/**
+	 * Translate the given objects into Entities, in parallel on the common {@link ForkJoinPool}.
+	 *
+	 * @see #toEntityVOs(Collection, Executor)
+	 */
+	public <T> List<EntityVO> toEntityVOs(Collection<T> entities) {
+		return toEntityVOs(entities, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Translate the given objects into Entities, in parallel on the given executor. The objects are split into chunks,
+	 * every chunk is mapped by one task. The calling thread blocks until all chunks are mapped.
+	 *
+	 * @param entities the objects representing the entities
+	 * @param executor executor to run the mapping tasks on
+	 * @param <T>      class of the entities
+	 * @return the NGSI-LD entity objects, in order of the given objects
+	 * @throws BulkMappingException if the mapping of at least one object failed, containing the errors by index
+	 */
+	public <T> List<EntityVO> toEntityVOs(Collection<T> entities, Executor executor) {
+		// not List.copyOf, null elements are reported per index instead of failing the whole call
+		List<T> entityList = new ArrayList<>(entities);
+		EntityVO[] entityVOs = new EntityVO[entityList.size()];
+		RuntimeException[] errors = new RuntimeException[entityList.size()];
+
+		int chunkSize = Math.max(MIN_BULK_CHUNK_SIZE,
+				entityList.size() / (Runtime.getRuntime().availableProcessors() * BULK_CHUNKS_PER_PROCESSOR) + 1);
+		List<CompletableFuture<Void>> chunks = new ArrayList<>();
+		for (int chunkStart = 0; chunkStart < entityList.size(); chunkStart += chunkSize) {
+			int from = chunkStart;
+			int to = Math.min(chunkStart + chunkSize, entityList.size());
+			chunks.add(CompletableFuture.runAsync(() -> {
+				for (int i = from; i < to; i++) {
+					T entity = entityList.get(i);
+					if (entity == null) {
+						errors[i] = new MappingException("Cannot map null to an entity.");
+						continue;
+					}
+					try {
+						entityVOs[i] = toEntityVO(entity);
+					} catch (RuntimeException e) {
+						errors[i] = e;
+					}
+				}
+			}, executor));
+		}
+		// results are only read after all chunks completed, thus are visible to the calling thread
+		CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+
+		SortedMap<Integer, RuntimeException> errorsByIndex = new TreeMap<>();
+		for (int i = 0; i < errors.length; i++) {
+			if (errors[i] != null) {
+				errorsByIndex.put(i, errors[i]);
+			}
+		}
+		if (!errorsByIndex.isEmpty()) {
+			throw new BulkMappingException(Arrays.asList(entityVOs), errorsByIndex);
+		}
+		return Arrays.asList(entityVOs);
+	}
+
+	/**
+	 * Get the plan of the entity's class, after checking that it can be mapped to an entity.
+	 */
+	private <T> GetterMappingPlan getEntityMappingPlan(T entity) {
 		isMappingEnabled(entity.getClass())
 				.orElseThrow(() -> new UnsupportedOperationException(
 						String.format("Generic mapping to NGSI-LD entities is not supported for object %s",
 								entity)));
 
-		List<Method> entityIdMethod = new ArrayList<>();
-		List<Method> entityTypeMethod = new ArrayList<>();
-		List<Method> propertyMethods = new ArrayList<>();
-		List<Method> propertyListMethods = new ArrayList<>();
-		List<Method> relationshipMethods = new ArrayList<>();
-		List<Method> relationshipListMethods = new ArrayList<>();
-		List<Method> geoPropertyMethods = new ArrayList<>();
-		List<Method> geoPropertyListMethods = new ArrayList<>();
-		List<Method> unmappedPropertiesGetterMethods = new ArrayList<>();
-
-		Arrays.stream(entity.getClass().getMethods()).forEach(method -> {
-			if (isEntityIdMethod(method)) {
-				entityIdMethod.add(method);
-			} else if (isEntityTypeMethod(method)) {
-				entityTypeMethod.add(method);
-			} else if (isUnmappedPropertiesGetter(method)) {
-				unmappedPropertiesGetterMethods.add(method);
-			} else {
-				getAttributeGetter(method.getAnnotations()).ifPresent(annotation -> {
-					switch (annotation.value()) {
-						case PROPERTY -> propertyMethods.add(method);
-						case PROPERTY_LIST -> propertyListMethods.add(method);
-						case GEO_PROPERTY -> geoPropertyMethods.add(method);
-						case RELATIONSHIP -> relationshipMethods.add(method);
-						case GEO_PROPERTY_LIST -> geoPropertyListMethods.add(method);
-						case RELATIONSHIP_LIST -> relationshipListMethods.add(method);
-						default -> throw new UnsupportedOperationException(
-								String.format("Mapping target %s is not supported.", annotation.value()));
-					}
-				});
+		return GetterMappingPlan.forClass(entity.getClass()).validateEntity();
+	}
+
+	/**
+	 * Compute the difference between two states of the same entity, to only send the changed attributes to the broker.
+	 *
+	 * @param before the previous state of the entity
+	 * @param after  the current state of the entity
+	 * @param <T>    class of the entity
+	 * @return the delta, leading from the previous to the current state
+	 */
+	public <T> EntityDelta diff(T before, T after) {
+		GetterMappingPlan previousPlan = getEntityMappingPlan(before);
+		GetterMappingPlan currentPlan = getEntityMappingPlan(after);
+		URI entityId = getEntityId(after, currentPlan);
+		checkSameEntity(getEntityId(before, previousPlan), entityId);
+		return diff(entityId, buildAttributes(before, previousPlan), buildAttributes(after, currentPlan), currentPlan);
+	}
+
+	/**
+	 * Compute the difference between the last known state of an entity, e.g. as retrieved from the broker, and its
+	 * current state. Attributes of the previous state that are not mapped by the current object's class are only
+	 * reported as removed if the class receives unmapped properties, since they might be owned by someone else.
+	 *
+	 * @param previous the last known state of the entity
+	 * @param current  the current state of the entity
+	 * @param <T>      class of the entity
+	 * @return the delta, leading from the previous to the current state
+	 */
+	public <T> EntityDelta diff(EntityVO previous, T current) {
+		GetterMappingPlan currentPlan = getEntityMappingPlan(current);
+		URI entityId = getEntityId(current, currentPlan);
+		checkSameEntity(previous.getId(), entityId);
+		return diff(entityId, getAttributes(previous), buildAttributes(current, currentPlan), currentPlan);
+	}
+
+	private void checkSameEntity(URI previousId, URI currentId) {
+		if (!currentId.equals(previousId)) {
+			throw new MappingException(
+					String.format("Cannot diff the different entities %s and %s.", previousId, currentId));
+		}
+	}
+
+	private EntityDelta diff(URI entityId, Map<String, AdditionalPropertyVO> previousAttributes,
+							 Map<String, AdditionalPropertyVO> currentAttributes, GetterMappingPlan currentPlan) {
+		Map<String, AdditionalPropertyVO> addedAttributes = new LinkedHashMap<>();
+		Map<String, AdditionalPropertyVO> changedAttributes = new LinkedHashMap<>();
+		Set<String> removedAttributes = new LinkedHashSet<>();
+
+		currentAttributes.forEach((name, attribute) -> {
+			AdditionalPropertyVO previousAttribute = previousAttributes.get(name);
+			if (previousAttribute == null) {
+				addedAttributes.put(name, attribute);
+			} else if (!attributesEqual(previousAttribute, attribute)) {
+				changedAttributes.put(name, attribute);
 			}
 		});
+		previousAttributes.keySet().stream()
+				.filter(name -> !currentAttributes.containsKey(name))
+				.filter(currentPlan::mapsAttribute)
+				.forEach(removedAttributes::add);
 
-		if (entityIdMethod.size() != 1) {
-			throw new MappingException(
-					String.format("The provided object declares %s id methods, exactly one is expected.",
-							entityIdMethod.size()));
+		return new EntityDelta(entityId, mappingProperties.getContextUrl(), addedAttributes, changedAttributes,
+				removedAttributes);
+	}
+
+	/**
+	 * Compare the attributes by their json representation, to not depend on the concrete classes in the attributes
+	 * read from the broker. The datasetIds of property list entries are ignored, since they can be generated on every
+	 * mapping.
+	 */
+	private boolean attributesEqual(AdditionalPropertyVO previous, AdditionalPropertyVO current) {
+		if (previous.equals(current)) {
+			return true;
 		}
-		if (entityTypeMethod.size() != 1) {
-			throw new MappingException(
-					String.format("The provided object declares %s type methods, exactly one is expected.",
-							entityTypeMethod.size()));
+		return attributeTree(previous).equals(NUMBER_AWARE_COMPARATOR, attributeTree(current));
+	}
 
+	/**
+	 * Json tree of the attribute, without the datasetIds of property list entries.
+	 */
+	JsonNode attributeTree(AdditionalPropertyVO attribute) {
+		JsonNode attributeTree = objectMapper.valueToTree(attribute);
+		if (!attributeTree.isArray()) {
+			return attributeTree;
 		}
+		// datasetIds of relationship lists are provided by the related objects and have to be compared
+		if (attribute instanceof PropertyListVO) {
+			attributeTree.forEach(entry -> {
+				if (entry.isObject()) {
+					((ObjectNode) entry).remove(DATASET_ID_PROPERTY);
+				}
+			});
+		}
+		// single-entry lists are returned as plain attributes by the broker
+		return attributeTree.size() == 1 ? attributeTree.get(0) : attributeTree;
+	}
 
-		if (unmappedPropertiesGetterMethods.isEmpty()) {
-			return buildEntity(entity, entityIdMethod.get(0), entityTypeMethod.get(0), Optional.empty(), propertyMethods,
-					propertyListMethods,
-					geoPropertyMethods, relationshipMethods, relationshipListMethods);
+	/**
+	 * Write the given object as NGSI-LD entity to the generator. The written json is the same as the serialized result
+	 * of {@link #toEntityVO(Object)}, but no {@link EntityVO} is created in between.
+	 *
+	 * @param entity    the object representing the entity
+	 * @param generator generator to write the entity to
+	 * @param <T>       class of the entity
+	 * @throws IOException if the entity cannot be written
+	 */
+	public <T> void writeEntity(T entity, JsonGenerator generator) throws IOException {
+		writeEntity(entity, generator, attributeWriter());
+	}
+
+	/**
+	 * Write the given objects as NGSI-LD entities to the output stream, either as a single json array or as
+	 * newline-delimited json(one entity per line). Every entity is written as soon as it is emitted, without collecting
+	 * the entities or their json in memory. Writing happens on the thread emitting the entities, the output stream is
+	 * flushed, but not closed. If writing fails or is cancelled, the written json is left incomplete.
+	 *
+	 * @param entities     the objects representing the entities
+	 * @param outputStream stream to write the entities to
+	 * @param ndjson       true for newline-delimited json, false for a json array
+	 * @param <T>          class of the entities
+	 * @return a mono, completing when all entities are written
+	 */
+	public <T> Mono<Void> writeEntities(Flux<T> entities, OutputStream outputStream, boolean ndjson) {
+		ObjectWriter attributeWriter = attributeWriter();
+		return Mono.using(
+				() -> createGenerator(outputStream, ndjson),
+				generator -> entities
+						.concatMap(entity -> writeToGenerator(() -> {
+							writeEntity(entity, generator, attributeWriter);
+							if (ndjson) {
+								generator.writeRaw('\n');
+							}
+						}))
+						.then(writeToGenerator(() -> {
+							if (!ndjson) {
+								generator.writeEndArray();
+							}
+							generator.flush();
+						})),
+				generator -> {
+					try {
+						generator.close();
+					} catch (IOException e) {
+						log.warn("Was not able to close the generator.", e);
+					}
+				});
+	}
+
+	private JsonGenerator createGenerator(OutputStream outputStream, boolean ndjson) throws IOException {
+		JsonGenerator generator = objectMapper.getFactory()
+				.createGenerator(outputStream)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				// a failed stream has to stay incomplete, instead of being closed to a valid, but shorter array
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+		if (ndjson) {
+			// entities are separated by line breaks instead
+			generator.setRootValueSeparator(null);
 		} else {
-			return buildEntity(entity, entityIdMethod.get(0), entityTypeMethod.get(0), Optional.of(unmappedPropertiesGetterMethods.get(0)), propertyMethods,
-					propertyListMethods,
-					geoPropertyMethods, relationshipMethods, relationshipListMethods);
+			generator.writeStartArray();
+		}
+		return generator;
+	}
+
+	private Mono<Void> writeToGenerator(GeneratorWrite generatorWrite) {
+		return Mono.fromCallable(() -> {
+			try {
+				generatorWrite.write();
+				return true;
+			} catch (IOException e) {
+				throw new MappingException("Was not able to write the entities.", e);
+			}
+		}).then();
+	}
+
+	/**
+	 * Writer for the attributes of an entity. The generator is flushed once, after the entity, instead of after every
+	 * attribute.
+	 */
+	private ObjectWriter attributeWriter() {
+		return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	private <T> void writeEntity(T entity, JsonGenerator generator, ObjectWriter attributeWriter) throws IOException {
+		GetterMappingPlan mappingPlan = getEntityMappingPlan(entity);
+		URI entityId = getEntityId(entity, mappingPlan);
+		String entityType = getEntityType(entity, mappingPlan);
+
+		generator.writeStartObject();
+		if (mappingProperties.getContextUrl() != null) {
+			generator.writeFieldName(CONTEXT_PROPERTY);
+			attributeWriter.writeValue(generator, mappingProperties.getContextUrl());
+		}
+		generator.writeStringField(ID_PROPERTY, entityId.toString());
+		generator.writeStringField(TYPE_PROPERTY, entityType);
+		for (Map.Entry<String, AdditionalPropertyVO> attribute : buildAttributes(entity, mappingPlan).entrySet()) {
+			generator.writeFieldName(attribute.getKey());
+			attributeWriter.writeValue(generator, attribute.getValue());
 		}
+		generator.writeEndObject();
 	}
 
 	/**
 	 * Build the entity from its declared methods.
 	 */
-	private <T> EntityVO buildEntity(T entity, Method entityIdMethod, Method entityTypeMethod, Optional<Method> unmappedPropertiesMethod,
-									 List<Method> propertyMethods, List<Method> propertyListMethods,
-									 List<Method> geoPropertyMethods,
-									 List<Method> relationshipMethods, List<Method> relationshipListMethods) {
+	private <T> EntityVO buildEntity(T entity, GetterMappingPlan mappingPlan) {
 
 		EntityVO entityVO = new EntityVO();
 		entityVO.setAtContext(mappingProperties.getContextUrl());
@@ -250,34 +530,54 @@ public class JavaObjectMapper extends Mapper {
 		entityVO.setObservationSpace(null);
 		entityVO.setLocation(null);
 
+		entityVO.id(getEntityId(entity, mappingPlan));
+		entityVO.setType(getEntityType(entity, mappingPlan));
+
+		buildAttributes(entity, mappingPlan).forEach(entityVO::setAdditionalProperties);
+
+		return entityVO;
+	}
+
+	private <T> URI getEntityId(T entity, GetterMappingPlan mappingPlan) {
 		try {
-			Object entityIdObject = entityIdMethod.invoke(entity);
+			Object entityIdObject = mappingPlan.getEntityIdGetter().get(entity);
 			if (!(entityIdObject instanceof URI)) {
 				throw new MappingException(
 						String.format("The entityId method does not return a valid URI for entity %s.", entity));
 			}
-			entityVO.id((URI) entityIdObject);
+			return (URI) entityIdObject;
+		} catch (InvocationTargetException e) {
+			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, "unknown-method", entity),
+					e);
+		}
+	}
 
-			Object entityTypeObject = entityTypeMethod.invoke(entity);
+	private <T> String getEntityType(T entity, GetterMappingPlan mappingPlan) {
+		try {
+			Object entityTypeObject = mappingPlan.getEntityTypeGetter().get(entity);
 			if (!(entityTypeObject instanceof String)) {
 				throw new MappingException("The entityType method does not return a valid String.");
 			}
-			entityVO.setType((String) entityTypeObject);
-		} catch (IllegalAccessException | InvocationTargetException e) {
+			return (String) entityTypeObject;
+		} catch (InvocationTargetException e) {
 			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, "unknown-method", entity),
 					e);
 		}
+	}
 
+	/**
+	 * Build all attributes of the entity from its declared methods, in order of their appearance in the entity.
+	 */
+	private <T> Map<String, AdditionalPropertyVO> buildAttributes(T entity, GetterMappingPlan mappingPlan) {
 		Map<String, AdditionalPropertyVO> additionalProperties = new LinkedHashMap<>();
-		additionalProperties.putAll(buildProperties(entity, propertyMethods));
-		additionalProperties.putAll(buildPropertyList(entity, propertyListMethods));
-		additionalProperties.putAll(buildGeoProperties(entity, geoPropertyMethods));
-		if (unmappedPropertiesMethod.isPresent()) {
-			additionalProperties.putAll(buildUnmappedProperties(entity, unmappedPropertiesMethod.get()));
-		}
-		Map<String, RelationshipVO> relationshipVOMap = buildRelationships(entity, relationshipMethods);
+		additionalProperties.putAll(buildProperties(entity, mappingPlan.getAttributeGetters(AttributeType.PROPERTY)));
+		additionalProperties.putAll(buildPropertyList(entity, mappingPlan.getAttributeGetters(AttributeType.PROPERTY_LIST)));
+		additionalProperties.putAll(buildGeoProperties(entity, mappingPlan.getAttributeGetters(AttributeType.GEO_PROPERTY)));
+		mappingPlan.getUnmappedPropertiesGetter()
+				.ifPresent(unmappedPropertiesMethod -> additionalProperties.putAll(buildUnmappedProperties(entity, unmappedPropertiesMethod)));
+		Map<String, RelationshipVO> relationshipVOMap = buildRelationships(entity, mappingPlan.getAttributeGetters(AttributeType.RELATIONSHIP));
 		Map<String, RelationshipListVO> relationshipListVOMap = buildRelationshipList(entity,
-				relationshipListMethods);
+				mappingPlan.getAttributeGetters(AttributeType.RELATIONSHIP_LIST));
 		// we need to post-process the relationships, since orion-ld only accepts dataset-ids for lists > 1
 		relationshipVOMap.entrySet().stream().forEach(e -> e.getValue().setDatasetId(null));
 		relationshipListVOMap.entrySet().stream().forEach(e -> {
@@ -288,37 +588,13 @@ public class JavaObjectMapper extends Mapper {
 
 		additionalProperties.putAll(relationshipVOMap);
 		additionalProperties.putAll(relationshipListVOMap);
-
-		additionalProperties.forEach(entityVO::setAdditionalProperties);
-
-		return entityVO;
-	}
-
-	/**
-	 * Check if the given method defines the entity type
-	 */
-	private boolean isEntityTypeMethod(Method method) {
-		return Arrays.stream(method.getAnnotations()).anyMatch(a -> a.annotationType() == EntityType.class);
-	}
-
-	/**
-	 * Check if the given method defines the entity id
-	 */
-	private boolean isEntityIdMethod(Method method) {
-		return Arrays.stream(method.getAnnotations()).anyMatch(a -> a.annotationType() == EntityId.class);
-	}
-
-	/**
-	 * Check if the given method handles access to the unmapped properties
-	 */
-	private boolean isUnmappedPropertiesGetter(Method method) {
-		return Arrays.stream(method.getAnnotations()).anyMatch(a -> a.annotationType() == UnmappedPropertiesGetter.class);
+		return additionalProperties;
 	}
 
 	/**
 	 * Build a relationship from the declared methods
 	 */
-	private <T> Map<String, RelationshipVO> buildRelationships(T entity, List<Method> relationshipMethods) {
+	private <T> Map<String, RelationshipVO> buildRelationships(T entity, List<GetterMappingPlan.GetterEntry> relationshipMethods) {
 		return relationshipMethods.stream()
 				.map(method -> methodToRelationshipEntry(entity, method))
 				.filter(Optional::isPresent)
@@ -330,7 +606,7 @@ public class JavaObjectMapper extends Mapper {
 	 * Build a list of relationships from the declared methods
 	 */
 	private <
-			T> Map<String, RelationshipListVO> buildRelationshipList(T entity, List<Method> relationshipListMethods) {
+			T> Map<String, RelationshipListVO> buildRelationshipList(T entity, List<GetterMappingPlan.GetterEntry> relationshipListMethods) {
 		return relationshipListMethods.stream()
 				.map(relationshipMethod -> methodToRelationshipListEntry(entity, relationshipMethod))
 				.filter(Optional::isPresent)
@@ -341,7 +617,7 @@ public class JavaObjectMapper extends Mapper {
 	/*
 	 * Build a list of properties from the declared methods
 	 */
-	private <T> Map<String, PropertyListVO> buildPropertyList(T entity, List<Method> propertyListMethods) {
+	private <T> Map<String, PropertyListVO> buildPropertyList(T entity, List<GetterMappingPlan.GetterEntry> propertyListMethods) {
 		return propertyListMethods.stream()
 				.map(propertyListMethod -> methodToPropertyListEntry(entity, propertyListMethod))
 				.filter(Optional::isPresent)
@@ -352,7 +628,7 @@ public class JavaObjectMapper extends Mapper {
 	/**
 	 * Build geoproperties from the declared methods
 	 */
-	private <T> Map<String, GeoPropertyVO> buildGeoProperties(T entity, List<Method> geoPropertyMethods) {
+	private <T> Map<String, GeoPropertyVO> buildGeoProperties(T entity, List<GetterMappingPlan.GetterEntry> geoPropertyMethods) {
 		return geoPropertyMethods.stream()
 				.map(geoPropertyMethod -> methodToGeoPropertyEntry(entity, geoPropertyMethod))
 				.filter(Optional::isPresent)
@@ -395,26 +671,74 @@ public class JavaObjectMapper extends Mapper {
 			return objectList;
 		}
 		return objectList.stream()
-				.map(this::toEscapedMap)
+				.map(this::valueToEscapedMap)
 				.toList();
 	}
 
 	private Map<String, Object> toEscapedMap(Object o) {
+		return convertedToEscapedMap(toMap(o));
+	}
+
+	/**
+	 * Escape the keys of an object, already converted to its map representation. Nested maps are part of the same
+	 * conversion and therefore not converted again.
+	 */
+	private Map<String, Object> convertedToEscapedMap(Map<?, ?> convertedMap) {
 		Map<String, Object> escapedMap = new HashMap<>();
-		Map<String, Object> unescapedMap = toMap(o);
-		unescapedMap.entrySet().forEach(entry -> {
-			String escapedKey = ReservedWordHandler.escapeReservedWords(entry.getKey());
-			if (entry.getValue() instanceof List valueList) {
+		convertedMap.forEach((key, value) -> {
+			String escapedKey = ReservedWordHandler.escapeReservedWords(String.valueOf(key));
+			if (value instanceof List<?> valueList) {
 				escapedMap.put(escapedKey, listToEscapedMap(valueList));
-			} else if (isPlain(entry.getValue())) {
-				escapedMap.put(escapedKey, entry.getValue());
+			} else if (isPlain(value)) {
+				escapedMap.put(escapedKey, value);
 			} else {
-				escapedMap.put(escapedKey, toEscapedMap(entry.getValue()));
+				escapedMap.put(escapedKey, valueToEscapedMap(value));
 			}
 		});
 		return escapedMap;
 	}
 
+	private Map<String, Object> valueToEscapedMap(Object value) {
+		if (value instanceof Map<?, ?> convertedMap) {
+			return convertedToEscapedMap(convertedMap);
+		}
+		return toEscapedMap(value);
+	}
+
+	/**
+	 * Build the property for an object, given as map and as its converted map representation(which is the same for
+	 * objects that are not maps). Value and sub-attributes are built from the same conversion, without converting the
+	 * nested objects again.
+	 */
+	private PropertyVO mapToPropertyVO(Map<?, ?> objectMap, Map<?, ?> convertedMap) {
+		PropertyVO propertyVO = new PropertyVO();
+		objectMap.forEach((key, value) -> {
+			if (key instanceof String stringKey) {
+				// Skip lists nested inside a Map: they would be fan-out as a
+				// PropertyListVO sibling (with one PropertyVO per item, each
+				// bearing a synthetic datasetId). Brokers then consolidate that
+				// multi-instance attribute against the matching key inside our
+				// Property.value Map, collapsing a single-element array back to
+				// its scalar form and breaking the round-trip
+				// (["step-cache"] becomes "step-cache" on retrieval). The list
+				// shape is already preserved by the escaped value map, so no
+				// sibling is needed.
+				if (value instanceof List<?>) {
+					return;
+				}
+				propertyVO.setAdditionalProperties(ReservedWordHandler.escapeReservedWords(stringKey), subAttribute(value, convertedMap.get(stringKey)));
+			}
+		});
+		return propertyVO.value(convertedToEscapedMap(convertedMap));
+	}
+
+	private AdditionalPropertyVO subAttribute(Object value, Object convertedValue) {
+		if (value != null && !isPlain(value) && !(value instanceof Collection<?>) && convertedValue instanceof Map<?, ?> convertedMap) {
+			return mapToPropertyVO(value instanceof Map<?, ?> valueMap ? valueMap : convertedMap, convertedMap);
+		}
+		return objectToAdditionalProperty(value);
+	}
+
 
 	private AdditionalPropertyVO objectToAdditionalProperty(Object o) {
 		if (o instanceof List<?> objectList && objectList.isEmpty()) {
@@ -438,8 +762,8 @@ public class JavaObjectMapper extends Mapper {
 				PropertyListVO list = new PropertyListVO();
 				for (int i = 0; i < objectList.size(); i++) {
 					PropertyVO p = new PropertyVO();
-					p.setValue(objectList.get(i));
-					p.setDatasetId(URI.create(LIST_ITEM_DATASET_ID_PREFIX + i));
+					p.setValue(valueCodecs.encode(objectList.get(i)));
+					p.setDatasetId(LIST_ITEM_DATASET_IDS.get(i));
 					list.add(p);
 				}
 				return list;
@@ -469,38 +793,11 @@ public class JavaObjectMapper extends Mapper {
 				return propertyVOS;
 			}
 		} else if (isPlain(o)) {
-			PropertyVO propertyVO = new PropertyVO().value(o);
+			PropertyVO propertyVO = new PropertyVO().value(valueCodecs.encode(o));
 			return propertyVO;
 		} else {
-			Map<?, ?> objectMap = new HashMap<>();
-			if (o instanceof Map<?, ?> om) {
-				objectMap = om;
-			} else {
-				objectMap = toMap(o);
-			}
-
-			PropertyVO propertyVO = new PropertyVO();
-			Map<String, AdditionalPropertyVO> values = new HashMap<>();
-			objectMap.forEach((key, value) -> {
-				if (key instanceof String stringKey) {
-					// Skip lists nested inside a Map: they would be fan-out as a
-					// PropertyListVO sibling (with one PropertyVO per item, each
-					// bearing a synthetic datasetId). Brokers then consolidate that
-					// multi-instance attribute against the matching key inside our
-					// Property.value Map, collapsing a single-element array back to
-					// its scalar form and breaking the round-trip
-					// (["step-cache"] becomes "step-cache" on retrieval). The list
-					// shape is already preserved by toEscapedMap below, so no
-					// sibling is needed.
-					if (value instanceof List<?>) {
-						return;
-					}
-					propertyVO.setAdditionalProperties(ReservedWordHandler.escapeReservedWords(stringKey), objectToAdditionalProperty(value));
-				}
-
-			});
-			return propertyVO.value(toEscapedMap(objectMap));
-
+			Map<String, Object> convertedMap = toMap(o);
+			return mapToPropertyVO(o instanceof Map<?, ?> objectMap ? objectMap : convertedMap, convertedMap);
 		}
 	}
 
@@ -524,13 +821,13 @@ public class JavaObjectMapper extends Mapper {
 			return true;
 		}
 
-		return false;
+		return o != null && valueCodecs.getCodec(o.getClass()).isPresent();
 	}
 
 
-	private <T> Map<String, AdditionalPropertyVO> buildUnmappedProperties(T entity, Method method) {
+	private <T> Map<String, AdditionalPropertyVO> buildUnmappedProperties(T entity, Accessors.Getter getter) {
 		try {
-			Object unmappedProperties = method.invoke(entity);
+			Object unmappedProperties = getter.get(entity);
 			if (unmappedProperties == null) {
 				return Map.of();
 			} else if (unmappedProperties instanceof List<?> unmappedPropertiesList) {
@@ -546,8 +843,8 @@ public class JavaObjectMapper extends Mapper {
 				throw new MappingException("Only lists of additional Properties are supported.");
 			}
 
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, entity));
+		} catch (InvocationTargetException e) {
+			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, getter.method(), entity));
 		}
 	}
 
@@ -555,7 +852,7 @@ public class JavaObjectMapper extends Mapper {
 	/**
 	 * Build properties from the declared methods
 	 */
-	private <T> Map<String, AdditionalPropertyVO> buildProperties(T entity, List<Method> propertyMethods) {
+	private <T> Map<String, AdditionalPropertyVO> buildProperties(T entity, List<GetterMappingPlan.GetterEntry> propertyMethods) {
 		return propertyMethods.stream()
 				.map(propertyMethod -> methodToPropertyEntry(entity, propertyMethod))
 				.filter(Optional::isPresent)
@@ -563,37 +860,6 @@ public class JavaObjectMapper extends Mapper {
 				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 	}
 
-	/**
-	 * Return method defining the object of the relationship for the given entity, if exists.
-	 */
-	private <T> Optional<Method> getRelationshipObjectMethod(T entity) {
-		return Arrays.stream(entity.getClass().getMethods()).filter(this::isRelationShipObject).findFirst();
-	}
-
-	/**
-	 * Return method defining the datasetid for the given entity, if exists.
-	 */
-	private <T> Optional<Method> getDatasetIdMethod(T entity) {
-		return Arrays.stream(entity.getClass().getMethods()).filter(this::isDatasetId).findFirst();
-	}
-
-	/**
-	 * Get all methods declared as attribute getters.
-	 */
-	private <T> List<Method> getAttributeGettersMethods(T entity) {
-		return Arrays.stream(entity.getClass().getMethods())
-				.filter(m -> getAttributeGetterAnnotation(m).isPresent())
-				.toList();
-	}
-
-	/**
-	 * return the {@link  AttributeGetter} annotation for the method if there is such.
-	 */
-	private Optional<AttributeGetter> getAttributeGetterAnnotation(Method m) {
-		return Arrays.stream(m.getAnnotations()).filter(a -> a.annotationType() == AttributeGetter.class).findFirst()
-				.map(AttributeGetter.class::cast);
-	}
-
 	/**
 	 * Find the attribute getter from all the annotations.
 	 */
@@ -610,35 +876,25 @@ public class JavaObjectMapper extends Mapper {
 				.findFirst();
 	}
 
-	/**
-	 * Check if the given method is declared to be used as object of a relationship
-	 */
-	private boolean isRelationShipObject(Method m) {
-		return Arrays.stream(m.getAnnotations()).anyMatch(a -> a.annotationType() == RelationshipObject.class);
-	}
-
-	/**
-	 * Check if the given method is declared to be used as datasetId
-	 */
-	private boolean isDatasetId(Method m) {
-		return Arrays.stream(m.getAnnotations()).anyMatch(a -> a.annotationType() == DatasetId.class);
-	}
-
 	/**
 	 * Build a property entry from the given method on the entity
 	 */
-	private <T> Optional<Map.Entry<String, AdditionalPropertyVO>> methodToPropertyEntry(T entity, Method method) {
+	private <T> Optional<Map.Entry<String, AdditionalPropertyVO>> methodToPropertyEntry(T entity, GetterMappingPlan.GetterEntry getter) {
+		Method method = getter.method();
 		try {
-			Object propertyObject = method.invoke(entity);
+			Object propertyObject = getter.getter().get(entity);
 			if (propertyObject == null) {
 				return Optional.empty();
 			}
-			AttributeGetter attributeMapping = getAttributeGetter(method.getAnnotations()).orElseThrow(
-					() -> new MappingException(String.format(NO_MAPPING_DEFINED_FOR_METHOD_TEMPLATE, method)));
+			AttributeGetter attributeMapping = getter.annotation();
 
-			if (isPlain(propertyObject)) {
+			if ((attributeMapping.compact() || mappingProperties.isCompactLists() || CompactLists.isPrimitiveArray(propertyObject.getClass()))
+					&& CompactLists.isCompactable(propertyObject)) {
+				PropertyVO propertyVO = new PropertyVO().value(CompactLists.wrap(propertyObject));
+				return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), propertyVO));
+			} else if (isPlain(propertyObject)) {
 				PropertyVO propertyVO = new PropertyVO();
-				propertyVO.value(propertyObject);
+				propertyVO.value(valueCodecs.encode(propertyObject));
 				return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), propertyVO));
 			} else if (propertyObject instanceof List) {
 				AdditionalPropertyVO additionalProperty = objectToAdditionalProperty(propertyObject);
@@ -648,14 +904,10 @@ public class JavaObjectMapper extends Mapper {
 				if (propertyObjectMap.isEmpty()) {
 					return Optional.empty();
 				}
-				AdditionalPropertyVO additionalProperty = objectToAdditionalProperty(toMap(propertyObject));
-				if (additionalProperty instanceof PropertyVO) {
-					((PropertyVO) additionalProperty).value(toEscapedMap(propertyObject));
-				}
-				return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), additionalProperty));
+				return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), mapToPropertyVO(propertyObjectMap, propertyObjectMap)));
 			}
 
-		} catch (IllegalAccessException | InvocationTargetException e) {
+		} catch (InvocationTargetException e) {
 			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, entity));
 		}
 	}
@@ -671,18 +923,18 @@ public class JavaObjectMapper extends Mapper {
 	/**
 	 * Build a geo-property entry from the given method on the entity
 	 */
-	private <T> Optional<Map.Entry<String, GeoPropertyVO>> methodToGeoPropertyEntry(T entity, Method method) {
+	private <T> Optional<Map.Entry<String, GeoPropertyVO>> methodToGeoPropertyEntry(T entity, GetterMappingPlan.GetterEntry getter) {
+		Method method = getter.method();
 		try {
-			Object o = method.invoke(entity);
+			Object o = getter.getter().get(entity);
 			if (o == null) {
 				return Optional.empty();
 			}
-			AttributeGetter attributeMapping = getAttributeGetter(method.getAnnotations()).orElseThrow(
-					() -> new MappingException(String.format(NO_MAPPING_DEFINED_FOR_METHOD_TEMPLATE, method)));
+			AttributeGetter attributeMapping = getter.annotation();
 			GeoPropertyVO geoPropertyVO = new GeoPropertyVO();
 			geoPropertyVO.setValue(o);
 			return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), geoPropertyVO));
-		} catch (IllegalAccessException | InvocationTargetException e) {
+		} catch (InvocationTargetException e) {
 			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, entity));
 		}
 	}
@@ -690,17 +942,17 @@ public class JavaObjectMapper extends Mapper {
 	/**
 	 * Build a relationship entry from the given method on the entity
 	 */
-	private <T> Optional<Map.Entry<String, RelationshipVO>> methodToRelationshipEntry(T entity, Method method) {
+	private <T> Optional<Map.Entry<String, RelationshipVO>> methodToRelationshipEntry(T entity, GetterMappingPlan.GetterEntry getter) {
+		Method method = getter.method();
 		try {
-			Object relationShipObject = method.invoke(entity);
+			Object relationShipObject = getter.getter().get(entity);
 			if (relationShipObject == null) {
 				return Optional.empty();
 			}
 			RelationshipVO relationshipVO = getRelationshipVO(method, relationShipObject);
-			AttributeGetter attributeMapping = getAttributeGetter(method.getAnnotations()).orElseThrow(
-					() -> new MappingException(String.format(NO_MAPPING_DEFINED_FOR_METHOD_TEMPLATE, method)));
+			AttributeGetter attributeMapping = getter.annotation();
 			return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), relationshipVO));
-		} catch (IllegalAccessException | InvocationTargetException e) {
+		} catch (InvocationTargetException e) {
 			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, entity));
 		}
 	}
@@ -708,9 +960,10 @@ public class JavaObjectMapper extends Mapper {
 	/**
 	 * Build a relationship list entry from the given method on the entity
 	 */
-	private <T> Optional<Map.Entry<String, RelationshipListVO>> methodToRelationshipListEntry(T entity, Method method) {
+	private <T> Optional<Map.Entry<String, RelationshipListVO>> methodToRelationshipListEntry(T entity, GetterMappingPlan.GetterEntry getter) {
+		Method method = getter.method();
 		try {
-			Object o = method.invoke(entity);
+			Object o = getter.getter().get(entity);
 			if (o == null) {
 				return Optional.empty();
 			}
@@ -720,8 +973,7 @@ public class JavaObjectMapper extends Mapper {
 			}
 			List<Object> entityObjects = (List) o;
 
-			AttributeGetter attributeGetter = getAttributeGetter(method.getAnnotations()).orElseThrow(
-					() -> new MappingException(String.format(NO_MAPPING_DEFINED_FOR_METHOD_TEMPLATE, method)));
+			AttributeGetter attributeGetter = getter.annotation();
 			RelationshipListVO relationshipVOS = new RelationshipListVO();
 
 			relationshipVOS.addAll(entityObjects.stream()
@@ -729,7 +981,7 @@ public class JavaObjectMapper extends Mapper {
 					.map(entityObject -> getRelationshipVO(method, entityObject))
 					.toList());
 			return Optional.of(new AbstractMap.SimpleEntry<>(attributeGetter.targetName(), relationshipVOS));
-		} catch (IllegalAccessException | InvocationTargetException e) {
+		} catch (InvocationTargetException e) {
 			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, entity));
 		}
 	}
@@ -738,23 +990,35 @@ public class JavaObjectMapper extends Mapper {
 	 * Get the relationship for the given method and relationship object
 	 */
 	private RelationshipVO getRelationshipVO(Method method, Object relationShipObject) {
+		if (relationShipObject instanceof LazyRelationship<?> lazyRelationship) {
+			Optional<?> optionalLoaded = lazyRelationship.getLoaded();
+			if (optionalLoaded.isPresent()) {
+				return getRelationshipVO(method, optionalLoaded.get());
+			}
+			// no need to load the entity, only its id is required
+			RelationshipVO relationshipVO = new RelationshipVO();
+			relationshipVO.setObject(lazyRelationship.getId());
+			lazyRelationship.getDatasetId().ifPresent(relationshipVO::setDatasetId);
+			return relationshipVO;
+		}
 		try {
 
 
-			Method objectMethod = getRelationshipObjectMethod(relationShipObject).orElseThrow(
+			GetterMappingPlan relationshipPlan = GetterMappingPlan.forClass(relationShipObject.getClass());
+			Accessors.Getter objectGetter = relationshipPlan.getRelationshipObjectGetter().orElseThrow(
 					() -> new MappingException(
 							String.format("The relationship %s-%s does not provide an object method.",
 									relationShipObject, method)));
-			Object objectObject = objectMethod.invoke(objectMethod.getDeclaringClass().cast(relationShipObject));
+			Object objectObject = objectGetter.get(relationShipObject);
 			if (!(objectObject instanceof URI)) {
 				throw new MappingException(
 						String.format("The object %s of the relationship is not a URI.", relationShipObject));
 			}
 
-			Method datasetIdMethod = getDatasetIdMethod(relationShipObject).orElseThrow(() -> new MappingException(
+			Accessors.Getter datasetIdGetter = relationshipPlan.getDatasetIdGetter().orElseThrow(() -> new MappingException(
 					String.format("The relationship %s-%s does not provide a datasetId method.", relationShipObject,
 							method)));
-			Object datasetIdObject = datasetIdMethod.invoke(datasetIdMethod.getDeclaringClass().cast(relationShipObject));
+			Object datasetIdObject = datasetIdGetter.get(relationShipObject);
 			if (!(datasetIdObject instanceof URI)) {
 				throw new MappingException(
 						String.format("The datasetId %s of the relationship is not a URI.", relationShipObject));
@@ -765,9 +1029,9 @@ public class JavaObjectMapper extends Mapper {
 
 
 			// get additional properties. We do not support more depth/complexity for now
-			Map<String, AdditionalPropertyVO> additionalProperties = getAttributeGettersMethods(relationShipObject)
+			Map<String, AdditionalPropertyVO> additionalProperties = relationshipPlan.getEmbeddedPropertyGetters()
 					.stream()
-					.map(getterMethod -> getAdditionalPropertyEntryFromMethod(relationShipObject, getterMethod))
+					.map(propertyGetter -> methodToPropertyEntry(relationShipObject, propertyGetter))
 					.filter(Optional::isPresent)
 					.map(Optional::get)
 					.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
@@ -775,34 +1039,19 @@ public class JavaObjectMapper extends Mapper {
 			additionalProperties.forEach(relationshipVO::setAdditionalProperties);
 
 			return relationshipVO;
-		} catch (IllegalAccessException | InvocationTargetException e) {
+		} catch (InvocationTargetException e) {
 			throw new MappingException(
 					String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, relationShipObject));
 		}
 	}
 
-	/**
-	 * Get all additional properties for the object of the relationship
-	 */
-	private Optional<Map.Entry<String, AdditionalPropertyVO>> getAdditionalPropertyEntryFromMethod(Object relationShipObject,
-																								   Method getterMethod) {
-		Optional<AttributeGetter> optionalAttributeGetter = getAttributeGetter(getterMethod.getAnnotations());
-		if (optionalAttributeGetter.isEmpty() || !optionalAttributeGetter.get().embedProperty()) {
-			return Optional.empty();
-		}
-		if (optionalAttributeGetter.get().value().equals(AttributeType.PROPERTY)) {
-			return methodToPropertyEntry(relationShipObject, getterMethod);
-		} else {
-			return Optional.empty();
-		}
-	}
-
 	/**
 	 * Build a property list entry from the given method on the entity
 	 */
-	private <T> Optional<Map.Entry<String, PropertyListVO>> methodToPropertyListEntry(T entity, Method method) {
+	private <T> Optional<Map.Entry<String, PropertyListVO>> methodToPropertyListEntry(T entity, GetterMappingPlan.GetterEntry getter) {
+		Method method = getter.method();
 		try {
-			Object o = method.invoke(entity);
+			Object o = getter.getter().get(entity);
 			if (o == null) {
 				return Optional.empty();
 			}
@@ -811,8 +1060,7 @@ public class JavaObjectMapper extends Mapper {
 						String.format("Property list method %s::%s did not return a List.", entity, method));
 			}
 
-			AttributeGetter attributeMapping = getAttributeGetter(method.getAnnotations()).orElseThrow(
-					() -> new MappingException(String.format(NO_MAPPING_DEFINED_FOR_METHOD_TEMPLATE, method)));
+			AttributeGetter attributeMapping = getter.annotation();
 			List<Object> entityObjects = (List) o;
 
 			PropertyListVO propertyVOS = new PropertyListVO();
@@ -820,30 +1068,32 @@ public class JavaObjectMapper extends Mapper {
 					.map(propertyObject -> {
 						PropertyVO propertyVO = new PropertyVO();
 						if (isPlain(propertyObject)) {
-							propertyVO.value(propertyObject);
+							propertyVO.value(valueCodecs.encode(propertyObject));
 						} else {
 							Map<String, Object> propertyObjectMap = toMap(propertyObject);
 							if (propertyObjectMap.isEmpty()) {
 								return null;
 							}
-							AdditionalPropertyVO additionalProperty = objectToAdditionalProperty(propertyObjectMap);
-							if (additionalProperty instanceof PropertyVO pvo) {
-								propertyVO = pvo.value(toEscapedMap(propertyObject));
-							}
+							propertyVO = mapToPropertyVO(propertyObjectMap, propertyObjectMap);
 						}
 						return propertyVO;
 					})
 					.filter(Objects::nonNull)
 					.forEach(propertyVOS::add);
 			if (propertyVOS.size() > 1) {
-				propertyVOS.forEach(propertyVO -> propertyVO.setDatasetId(URI.create("urn:uuid:" + UUID.randomUUID())));
+				for (int i = 0; i < propertyVOS.size(); i++) {
+					PropertyVO propertyVO = propertyVOS.get(i);
+					propertyVO.setDatasetId(datasetIdStrategy.getDatasetId(attributeMapping.targetName(), i, propertyVO.getValue()));
+				}
 			}
 			return Optional.of(new AbstractMap.SimpleEntry<>(attributeMapping.targetName(), propertyVOS));
-		} catch (IllegalAccessException | InvocationTargetException e) {
+		} catch (InvocationTargetException e) {
 			throw new MappingException(String.format(WAS_NOT_ABLE_INVOKE_METHOD_TEMPLATE, method, entity));
 		}
 	}
 
+	@FunctionalInterface
+	private interface GeneratorWrite {
+		void write() throws IOException;
+	}
 }
-
-
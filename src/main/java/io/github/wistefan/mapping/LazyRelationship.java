@@ -0,0 +1,100 @@
+package io.github.wistefan.mapping;
+
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holder of a lazily resolved relationship, set by the {@link EntityVOMapper} for {@link io.github.wistefan.mapping.annotations.AttributeSetter#lazy()}
+ * relationships. The related entity is only retrieved on the first {@link #load()}. All relationships created in the same
+ * mapping and not loaded yet are retrieved together with it, through a single call to the {@link EntitiesRepository}.
+ * <p>
+ * Two holders are equal if they point to the same entity.
+ *
+ * @param <T> class of the related object
+ */
+public final class LazyRelationship<T> {
+
+	private final URI id;
+	private final URI datasetId;
+	private final Mono<T> value;
+	private final AtomicReference<T> loadedValue = new AtomicReference<>();
+
+	LazyRelationship(URI id, URI datasetId, Mono<T> loader) {
+		this.id = id;
+		this.datasetId = datasetId;
+		this.value = loader.doOnNext(loadedValue::set).cache();
+	}
+
+	/**
+	 * Create an already loaded relationship, f.e. to map an object created in the application to NGSI-LD.
+	 *
+	 * @param id     id of the related entity
+	 * @param object the related object
+	 * @param <T>    class of the related object
+	 * @return the loaded relationship
+	 */
+	public static <T> LazyRelationship<T> of(URI id, T object) {
+		LazyRelationship<T> lazyRelationship = new LazyRelationship<>(id, null, Mono.just(object));
+		lazyRelationship.loadedValue.set(object);
+		return lazyRelationship;
+	}
+
+	/**
+	 * Id of the related entity, available without loading it.
+	 */
+	public URI getId() {
+		return id;
+	}
+
+	/**
+	 * DatasetId of the relationship, if provided by the entity.
+	 */
+	public Optional<URI> getDatasetId() {
+		return Optional.ofNullable(datasetId);
+	}
+
+	/**
+	 * Load the related object. The entity is retrieved only once, subsequent calls return the same object.
+	 *
+	 * @return a single, emitting the related object
+	 */
+	public Mono<T> load() {
+		return value;
+	}
+
+	/**
+	 * The related object, empty if it was not loaded yet.
+	 */
+	public Optional<T> getLoaded() {
+		return Optional.ofNullable(loadedValue.get());
+	}
+
+	public boolean isLoaded() {
+		return loadedValue.get() != null;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof LazyRelationship<?> that)) {
+			return false;
+		}
+		return Objects.equals(id, that.id);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(id);
+	}
+
+	@Override
+	public String toString() {
+		return "LazyRelationship(id=" + id + ", loaded=" + isLoaded() + ")";
+	}
+}
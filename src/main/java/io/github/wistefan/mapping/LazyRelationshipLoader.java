@@ -0,0 +1,108 @@
+package io.github.wistefan.mapping;
+
+import org.fiware.ngsi.model.EntityVO;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Retrieves the entities of {@link LazyRelationship}s created in one mapping. When the first relationship is loaded,
+ * all registered relationships that were not retrieved yet are requested with it, in a single call to the
+ * {@link EntitiesRepository}.
+ */
+final class LazyRelationshipLoader {
+
+	private final EntitiesRepository entitiesRepository;
+
+	/**
+	 * Ids of the registered relationships, that are not part of a retrieval yet, together with the attributes required
+	 * for them.
+	 */
+	private final Map<URI, List<String>> pendingIds = new LinkedHashMap<>();
+
+	/**
+	 * Retrievals by the ids they contain.
+	 */
+	private final Map<URI, Mono<Map<String, EntityVO>>> retrievals = new ConcurrentHashMap<>();
+
+	/**
+	 * Attributes the entities were retrieved with, by their id.
+	 */
+	private final Map<URI, List<String>> retrievedAttrs = new ConcurrentHashMap<>();
+
+	LazyRelationshipLoader(EntitiesRepository entitiesRepository) {
+		this.entitiesRepository = entitiesRepository;
+	}
+
+	/**
+	 * Register a relationship, to be retrieved together with the first one that gets loaded. If the entity was already
+	 * retrieved without the required attributes, it is retrieved again.
+	 *
+	 * @param entityId id of the entity
+	 * @param attrs    attributes required for the relationship, empty for all
+	 */
+	synchronized void register(URI entityId, List<String> attrs) {
+		List<String> previousAttrs = retrievedAttrs.get(entityId);
+		if (previousAttrs != null && AttributeProjection.covers(previousAttrs, attrs)) {
+			return;
+		}
+		List<String> requiredAttrs = attrs;
+		if (previousAttrs != null) {
+			retrievals.remove(entityId);
+			retrievedAttrs.remove(entityId);
+			requiredAttrs = AttributeProjection.union(List.of(previousAttrs, attrs));
+		}
+		pendingIds.merge(entityId, requiredAttrs, (a1, a2) -> AttributeProjection.union(List.of(a1, a2)));
+	}
+
+	/**
+	 * Load the entity with the given id.
+	 *
+	 * @param entityId id of the entity
+	 * @return a single, emitting the entity, empty optional if it does not exist
+	 */
+	Mono<Optional<EntityVO>> load(URI entityId) {
+		return Mono.defer(() -> Optional.ofNullable(retrievals.get(entityId))
+						.orElseGet(() -> newRetrieval(entityId)))
+				.map(entities -> Optional.ofNullable(entities.get(entityId.toString())));
+	}
+
+	private synchronized Mono<Map<String, EntityVO>> newRetrieval(URI entityId) {
+		Mono<Map<String, EntityVO>> existingRetrieval = retrievals.get(entityId);
+		if (existingRetrieval != null) {
+			return existingRetrieval;
+		}
+		List<URI> entityIds = new ArrayList<>(pendingIds.keySet());
+		List<String> attrs;
+		if (pendingIds.containsKey(entityId)) {
+			attrs = AttributeProjection.union(pendingIds.values());
+		} else {
+			// not registered, thus the required attributes are unknown
+			entityIds.add(entityId);
+			attrs = List.of();
+		}
+		pendingIds.clear();
+		Mono<Map<String, EntityVO>> retrieval = Mono.defer(() -> Optional.ofNullable(attrs.isEmpty() ? entitiesRepository.getEntities(entityIds) : entitiesRepository.getEntities(entityIds, attrs))
+						.orElse(Mono.just(List.of())))
+				.defaultIfEmpty(List.of())
+				.map(entities -> entities.stream()
+						.filter(Objects::nonNull)
+						.filter(entityVO -> entityVO.getId() != null)
+						.collect(Collectors.toMap(entityVO -> entityVO.getId().toString(), Function.identity(), (e1, e2) -> e1)))
+				.cache();
+		entityIds.forEach(id -> {
+			retrievals.put(id, retrieval);
+			retrievedAttrs.put(id, attrs);
+		});
+		return retrieval;
+	}
+}
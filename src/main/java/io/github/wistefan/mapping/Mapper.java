@@ -1,8 +1,12 @@
 package io.github.wistefan.mapping;
 
 import io.github.wistefan.mapping.annotations.MappingEnabled;
+import org.fiware.ngsi.model.AdditionalPropertyVO;
+import org.fiware.ngsi.model.EntityVO;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -20,4 +24,20 @@ public abstract class Mapper {
 				.findFirst();
 	}
 
+	/**
+	 * Collect the attributes of the entity, as written by the {@link JavaObjectMapper}: the additional properties and
+	 * the "well-known" geo properties, that the broker returns in their dedicated fields.
+	 */
+	static Map<String, AdditionalPropertyVO> getAttributes(EntityVO entityVO) {
+		Map<String, AdditionalPropertyVO> attributes = new LinkedHashMap<>();
+		Optional.ofNullable(entityVO.getLocation())
+				.ifPresent(location -> attributes.put(EntityVO.JSON_PROPERTY_LOCATION, location));
+		Optional.ofNullable(entityVO.getObservationSpace())
+				.ifPresent(observationSpace -> attributes.put(EntityVO.JSON_PROPERTY_OBSERVATION_SPACE, observationSpace));
+		Optional.ofNullable(entityVO.getOperationSpace())
+				.ifPresent(operationSpace -> attributes.put(EntityVO.JSON_PROPERTY_OPERATION_SPACE, operationSpace));
+		Optional.ofNullable(entityVO.getAdditionalProperties()).ifPresent(attributes::putAll);
+		return attributes;
+	}
+
 }
@@ -0,0 +1,39 @@
+package io.github.wistefan.mapping;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Reflection-free accessors for a {@link io.github.wistefan.mapping.annotations.MappingEnabled} class. Implementations
+ * are generated at compile time by the {@link io.github.wistefan.mapping.processor.MappingAccessorsProcessor}, named
+ * after the mapped class with the {@link #CLASS_NAME_SUFFIX} and placed in the same package. The mappers pick them up
+ * automatically and fall back to reflection for every method that is not covered.
+ *
+ * @param <T> the mapped class
+ */
+public interface MappingAccessors<T> {
+
+	/**
+	 * Suffix appended to the binary name of the mapped class to get the name of its accessors class.
+	 */
+	String CLASS_NAME_SUFFIX = "_MappingAccessors";
+
+	/**
+	 * Function creating a new instance from the entity id, empty if the class does not provide an accessible String
+	 * constructor.
+	 */
+	Optional<Function<String, T>> getIdConstructor();
+
+	/**
+	 * Getters of the class, by method name.
+	 */
+	Map<String, Function<T, Object>> getGetters();
+
+	/**
+	 * Setters of the class, by method name.
+	 */
+	Map<String, BiConsumer<T, Object>> getSetters();
+
+}
@@ -19,4 +19,49 @@ public class MappingProperties {
 	 * When set to true, mapping will fail if a realtionship cannot be resolved.
 	 */
 	private boolean strictRelationships = true;
+
+	/**
+	 * Number of entities that share a single retrieval of their relationships, when mapping multiple entities at once.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * Maximum depth of relationships to be resolved when mapping from NGSI-LD. Related objects beyond that depth only
+	 * contain their id.
+	 */
+	private int maxRelationshipDepth = 10;
+
+	/**
+	 * When set to true, related entities are only retrieved with the attributes required by their target class, see
+	 * {@link AttributeProjection}. Requires an {@link EntitiesRepository} supporting projections.
+	 */
+	private boolean projectAttributes = false;
+
+	/**
+	 * When set to true, lists of plain values are mapped as a single property containing the whole list, for all
+	 * properties. See {@link io.github.wistefan.mapping.annotations.AttributeGetter#compact()}.
+	 */
+	private boolean compactLists = false;
+
+	/**
+	 * Strategy to create the datasetIds of property list entries, when mapping to NGSI-LD.
+	 */
+	private DatasetIdStrategyType datasetIdStrategy = DatasetIdStrategyType.RANDOM;
+
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("The batch size needs to be at least 1.");
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Built-in strategies for datasetIds, see {@link DatasetIdStrategies}.
+	 */
+	public enum DatasetIdStrategyType {
+		RANDOM,
+		THREAD_LOCAL_RANDOM,
+		INDEX,
+		CONTENT_HASH
+	}
 }
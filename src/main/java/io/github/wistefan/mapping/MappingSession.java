@@ -0,0 +1,216 @@
+package io.github.wistefan.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.fiware.ngsi.model.AdditionalPropertyVO;
+import org.fiware.ngsi.model.EntityVO;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session remembering the last written or read state of entities, to only send the changed attributes on repeated
+ * writes. Instead of the attributes, only a 64-bit fingerprint of every attribute is kept. The session is bounded by
+ * the number of entities and evicts the least recently used ones first, evicted entities are written completely on
+ * their next write.
+ * <p>
+ * A fingerprint is updated as soon as the changes are requested. If the write fails, the entity should be
+ * {@link #forget(URI) forgotten}, to send it completely on the next write. Attributes not mapped by the class of the
+ * written object are only reported as removed if the class receives the unmapped properties.
+ */
+public class MappingSession {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final JavaObjectMapper javaObjectMapper;
+	private final int maxEntities;
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Fingerprints of the attributes by the entity-id, in access order, e.g. the least recently used entity first.
+	 */
+	private final LinkedHashMap<String, Map<String, Long>> fingerprints;
+
+	/**
+	 * @param javaObjectMapper mapper to translate the entities
+	 * @param maxEntities      maximum number of entities to remember
+	 */
+	public MappingSession(JavaObjectMapper javaObjectMapper, int maxEntities) {
+		if (maxEntities < 1) {
+			throw new IllegalArgumentException("The session needs to remember at least one entity.");
+		}
+		this.javaObjectMapper = javaObjectMapper;
+		this.maxEntities = maxEntities;
+		this.fingerprints = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Map<String, Long>> eldest) {
+				if (size() > MappingSession.this.maxEntities) {
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Remember the state of the given entity, f.e. after it was retrieved from the broker and mapped via
+	 * {@link EntityVOMapper#fromEntityVO(EntityVO, Class)}. The well-known geo properties are tracked as attributes.
+	 */
+	public void track(EntityVO entityVO) {
+		if (entityVO.getId() == null) {
+			throw new MappingException("Cannot track an entity without id.");
+		}
+		Map<String, Long> attributeFingerprints = new HashMap<>();
+		Mapper.getAttributes(entityVO).forEach((name, attribute) -> attributeFingerprints.put(name, fingerprint(attribute)));
+		put(entityVO.getId(), attributeFingerprints);
+	}
+
+	/**
+	 * Translate the given object into an Entity and remember its state.
+	 *
+	 * @param entity the object representing the entity
+	 * @param <T>    class of the entity
+	 * @return the NGSI-LD entity object
+	 */
+	public <T> EntityVO toEntityVO(T entity) {
+		EntityVO entityVO = javaObjectMapper.toEntityVO(entity);
+		track(entityVO);
+		return entityVO;
+	}
+
+	/**
+	 * Get the attributes changed since the last known state of the given object and remember its current state. If no
+	 * state is known, all attributes are added.
+	 *
+	 * @param entity the object representing the entity
+	 * @param <T>    class of the entity
+	 * @return the delta, leading from the last known to the current state
+	 */
+	public <T> EntityDelta changes(T entity) {
+		EntityVO entityVO = javaObjectMapper.toEntityVO(entity);
+		Map<String, AdditionalPropertyVO> attributes = Mapper.getAttributes(entityVO);
+		Map<String, Long> currentFingerprints = new HashMap<>();
+		attributes.forEach((name, attribute) -> currentFingerprints.put(name, fingerprint(attribute)));
+		// swap in a single step, concurrent writes of the same entity each get the changes to the state before them
+		Map<String, Long> previousFingerprints = exchange(entityVO.getId(), currentFingerprints).orElse(Map.of());
+
+		Map<String, AdditionalPropertyVO> addedAttributes = new LinkedHashMap<>();
+		Map<String, AdditionalPropertyVO> changedAttributes = new LinkedHashMap<>();
+		attributes.forEach((name, attribute) -> {
+			Long previousFingerprint = previousFingerprints.get(name);
+			if (previousFingerprint == null) {
+				addedAttributes.put(name, attribute);
+			} else if (previousFingerprint.longValue() != currentFingerprints.get(name)) {
+				changedAttributes.put(name, attribute);
+			}
+		});
+		GetterMappingPlan mappingPlan = GetterMappingPlan.forClass(entity.getClass());
+		Set<String> removedAttributes = new LinkedHashSet<>();
+		previousFingerprints.keySet().stream()
+				.filter(name -> !currentFingerprints.containsKey(name))
+				.filter(mappingPlan::mapsAttribute)
+				.forEach(removedAttributes::add);
+
+		return new EntityDelta(entityVO.getId(), entityVO.getAtContext(), addedAttributes, changedAttributes,
+				removedAttributes);
+	}
+
+	/**
+	 * Forget the state of the given entity, f.e. after a failed write.
+	 */
+	public synchronized void forget(URI entityId) {
+		fingerprints.remove(entityId.toString());
+	}
+
+	/**
+	 * Forget the state of all entities.
+	 */
+	public synchronized void forgetAll() {
+		fingerprints.clear();
+	}
+
+	/**
+	 * Number of entities with a known state.
+	 */
+	public synchronized int size() {
+		return fingerprints.size();
+	}
+
+	/**
+	 * Number of entities forgotten, because the maximum number of entities was exceeded.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	private synchronized Optional<Map<String, Long>> exchange(URI entityId, Map<String, Long> attributeFingerprints) {
+		return Optional.ofNullable(fingerprints.put(entityId.toString(), attributeFingerprints));
+	}
+
+	private synchronized void put(URI entityId, Map<String, Long> attributeFingerprints) {
+		fingerprints.put(entityId.toString(), attributeFingerprints);
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the attribute's json, normalized the same way as for the comparison of attributes: the
+	 * datasetIds of property list entries are ignored, numbers are hashed by their value, independent of their
+	 * representation, e.g. 1 and 1.0, and object fields independent of their order.
+	 */
+	long fingerprint(AdditionalPropertyVO attribute) {
+		return hash(FNV_OFFSET_BASIS, javaObjectMapper.attributeTree(attribute));
+	}
+
+	private static long hash(long hash, JsonNode node) {
+		if (node.isObject()) {
+			List<String> fieldNames = new ArrayList<>();
+			node.fieldNames().forEachRemaining(fieldNames::add);
+			fieldNames.sort(null);
+			hash = hash(hash, '{');
+			for (String fieldName : fieldNames) {
+				hash = hash(hash, fieldName);
+				hash = hash(hash, node.get(fieldName));
+			}
+			return hash(hash, '}');
+		}
+		if (node.isArray()) {
+			hash = hash(hash, '[');
+			for (JsonNode entry : node) {
+				hash = hash(hash, entry);
+			}
+			return hash(hash, ']');
+		}
+		if (node.isNumber() && !(node.isFloatingPointNumber() && !Double.isFinite(node.doubleValue()))) {
+			return hash(hash(hash, '#'), node.decimalValue().stripTrailingZeros().toString());
+		}
+		if (node.isTextual()) {
+			return hash(hash(hash, '"'), node.textValue());
+		}
+		return hash(hash(hash, '?'), node.toString());
+	}
+
+	private static long hash(long hash, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		// the length keeps adjacent values apart
+		hash = hash(hash, bytes.length);
+		for (byte b : bytes) {
+			hash = hash(hash, b & 0xff);
+		}
+		return hash;
+	}
+
+	private static long hash(long hash, int value) {
+		hash ^= value;
+		return hash * FNV_PRIME;
+	}
+}
@@ -0,0 +1,107 @@
+package io.github.wistefan.mapping;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only view of a base map, overlaid by a map of overrides. Neither of the maps is copied or modified. Iteration
+ * returns the entries of the base map first(with the values of overrides for the same key), followed by the entries only
+ * contained in the overrides, e.g. the same order as a {@link java.util.LinkedHashMap} filled with both maps in order.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class OverlayMap<K, V> extends AbstractMap<K, V> {
+
+	private final Map<K, V> base;
+	private final Map<K, V> overrides;
+
+	private OverlayMap(Map<K, V> base, Map<K, V> overrides) {
+		this.base = base;
+		this.overrides = overrides;
+	}
+
+	/**
+	 * Create the overlay of the given maps. Null maps are treated as empty.
+	 */
+	static <K, V> Map<K, V> of(Map<K, V> base, Map<K, V> overrides) {
+		if (overrides == null || overrides.isEmpty()) {
+			return base == null ? Map.of() : base;
+		}
+		if (base == null || base.isEmpty()) {
+			return overrides;
+		}
+		return new OverlayMap<>(base, overrides);
+	}
+
+	@Override
+	public V get(Object key) {
+		return overrides.containsKey(key) ? overrides.get(key) : base.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return overrides.containsKey(key) || base.containsKey(key);
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new OverlayIterator();
+			}
+
+			@Override
+			public int size() {
+				int size = base.size();
+				for (K key : overrides.keySet()) {
+					if (!base.containsKey(key)) {
+						size++;
+					}
+				}
+				return size;
+			}
+		};
+	}
+
+	private final class OverlayIterator implements Iterator<Entry<K, V>> {
+
+		private final Iterator<Entry<K, V>> baseIterator = base.entrySet().iterator();
+		private final Iterator<Entry<K, V>> overridesIterator = overrides.entrySet().iterator();
+		private Entry<K, V> next;
+
+		@Override
+		public boolean hasNext() {
+			while (next == null) {
+				if (baseIterator.hasNext()) {
+					Entry<K, V> baseEntry = baseIterator.next();
+					K key = baseEntry.getKey();
+					next = overrides.containsKey(key) ? new SimpleImmutableEntry<>(key, overrides.get(key)) : baseEntry;
+				} else if (overridesIterator.hasNext()) {
+					Entry<K, V> overrideEntry = overridesIterator.next();
+					if (!base.containsKey(overrideEntry.getKey())) {
+						next = overrideEntry;
+					}
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry<K, V> current = next;
+			next = null;
+			return new SimpleImmutableEntry<>(current);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package io.github.wistefan.mapping;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the public getter and setter methods of a class, by the name of the property they belong to. Created once
+ * per class and cached via {@link ClassValue}.
+ */
+final class PropertyMethodIndex {
+
+	private static final ClassValue<PropertyMethodIndex> INDEXES = new ClassValue<>() {
+		@Override
+		protected PropertyMethodIndex computeValue(Class<?> type) {
+			return new PropertyMethodIndex(type);
+		}
+	};
+
+	private final Map<String, List<Method>> getters = new HashMap<>();
+	private final Map<String, List<Method>> setters = new HashMap<>();
+
+	private PropertyMethodIndex(Class<?> indexedClass) {
+		for (Method method : indexedClass.getMethods()) {
+			String methodName = method.getName();
+			String getterProperty = propertyName(methodName, "get");
+			if (getterProperty == null) {
+				getterProperty = propertyName(methodName, "is");
+			}
+			String setterProperty = propertyName(methodName, "set");
+			if (setterProperty == null) {
+				setterProperty = propertyName(methodName, "is");
+			}
+			if (getterProperty != null) {
+				getters.computeIfAbsent(getterProperty, k -> new ArrayList<>()).add(method);
+			}
+			if (setterProperty != null) {
+				setters.computeIfAbsent(setterProperty, k -> new ArrayList<>()).add(method);
+			}
+		}
+		getters.replaceAll((name, methods) -> List.copyOf(methods));
+		setters.replaceAll((name, methods) -> List.copyOf(methods));
+	}
+
+	static PropertyMethodIndex forClass(Class<?> indexedClass) {
+		return INDEXES.get(indexedClass);
+	}
+
+	/**
+	 * Getter methods(get- or is-prefixed) of the property, in order of {@link Class#getMethods()}.
+	 */
+	List<Method> getGetters(String propertyName) {
+		return getters.getOrDefault(propertyName, List.of());
+	}
+
+	/**
+	 * Setter methods(set- or is-prefixed) of the property, in order of {@link Class#getMethods()}.
+	 */
+	List<Method> getSetters(String propertyName) {
+		return setters.getOrDefault(propertyName, List.of());
+	}
+
+	/**
+	 * Name of the property, if the method name consists of the prefix and an upper-case letter followed by anything,
+	 * null otherwise.
+	 */
+	private static String propertyName(String methodName, String prefix) {
+		int prefixLength = prefix.length();
+		if (methodName.length() <= prefixLength || !methodName.startsWith(prefix)) {
+			return null;
+		}
+		char firstLetter = methodName.charAt(prefixLength);
+		if (firstLetter < 'A' || firstLetter > 'Z') {
+			return null;
+		}
+		return Character.toLowerCase(firstLetter) + methodName.substring(prefixLength + 1);
+	}
+}
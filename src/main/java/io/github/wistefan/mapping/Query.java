@@ -0,0 +1,238 @@
+package io.github.wistefan.mapping;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builder for NGSI-LD query expressions({@code q}), based on the attributes of a mapped class. Attributes are given by
+ * their java property path(f.e. {@code "mySubProperty.propertyName"}) and translated via
+ * {@link JavaObjectMapper#getNGSIAttributePath(List, Class)}. Nested reserved words are escaped as in the mapped
+ * entities, values are formatted according to the {@link QueryAttributeType} of the attribute.
+ * <pre>{@code
+ * String q = Query.of(MyPojo.class).where("myName").eq("x").and("count").gt(3).toQ();
+ * }</pre>
+ * Terms are combined from left to right: when switching between {@code and} and {@code or}, the previous terms are
+ * grouped, e.g. {@code a.and(b).or(c)} becomes {@code (a;b)|c}. The translated attributes are cached per class.
+ *
+ * @param <T> the mapped class
+ */
+public final class Query<T> {
+
+	private static final char AND = ';';
+	private static final char OR = '|';
+	private static final char PATH_SEPARATOR = '.';
+
+	/**
+	 * Translated attributes, per class and java property path.
+	 */
+	private static final ClassValue<Map<String, CompiledAttribute>> COMPILED_ATTRIBUTES = new ClassValue<>() {
+		@Override
+		protected Map<String, CompiledAttribute> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	private static final int MAX_COMPILED_ATTRIBUTES = 1024;
+
+	private final Class<T> targetClass;
+	private final StringBuilder expression = new StringBuilder();
+	private char lastOperator;
+	private int termCount;
+	private String q;
+
+	private Query(Class<T> targetClass) {
+		this.targetClass = targetClass;
+	}
+
+	/**
+	 * Start a query for the given class.
+	 */
+	public static <T> Query<T> of(Class<T> targetClass) {
+		return new Query<>(targetClass);
+	}
+
+	/**
+	 * Start with a term on the given attribute.
+	 *
+	 * @param attribute java property path of the attribute, separated by dots
+	 */
+	public Condition<T> where(String attribute) {
+		if (termCount > 0) {
+			throw new IllegalStateException("The query already has a first term, use and or or to add further terms.");
+		}
+		return new Condition<>(this, compile(attribute), (char) 0);
+	}
+
+	/**
+	 * Add a term on the given attribute, that has to be fulfilled in addition.
+	 *
+	 * @param attribute java property path of the attribute, separated by dots
+	 */
+	public Condition<T> and(String attribute) {
+		return new Condition<>(this, compile(attribute), AND);
+	}
+
+	/**
+	 * Add a term on the given attribute, that can be fulfilled alternatively.
+	 *
+	 * @param attribute java property path of the attribute, separated by dots
+	 */
+	public Condition<T> or(String attribute) {
+		return new Condition<>(this, compile(attribute), OR);
+	}
+
+	/**
+	 * Get the NGSI-LD query expression.
+	 */
+	public String toQ() {
+		if (q == null) {
+			q = expression.toString();
+		}
+		return q;
+	}
+
+	@Override
+	public String toString() {
+		return toQ();
+	}
+
+	private Query<T> addTerm(char operator, String term) {
+		if (termCount == 0 && operator != 0) {
+			throw new IllegalStateException("The query has no first term, use where to add it.");
+		}
+		if (termCount > 1 && operator != lastOperator) {
+			expression.insert(0, '(').append(')');
+		}
+		if (operator != 0) {
+			expression.append(operator);
+			lastOperator = operator;
+		}
+		expression.append(term);
+		termCount++;
+		q = null;
+		return this;
+	}
+
+	private CompiledAttribute compile(String attribute) {
+		Map<String, CompiledAttribute> compiledAttributes = COMPILED_ATTRIBUTES.get(targetClass);
+		CompiledAttribute compiledAttribute = compiledAttributes.get(attribute);
+		if (compiledAttribute != null) {
+			return compiledAttribute;
+		}
+		NgsiLdAttribute ngsiLdAttribute = JavaObjectMapper.getNGSIAttributePath(splitPath(attribute), targetClass);
+		if (ngsiLdAttribute.path().isEmpty()) {
+			throw new MappingException(String.format("No attribute %s exists for %s.", attribute, targetClass.getCanonicalName()));
+		}
+		StringBuilder path = new StringBuilder();
+		for (int i = 0; i < ngsiLdAttribute.path().size(); i++) {
+			if (i > 0) {
+				// attribute names are used as they are, nested names are escaped as done when mapping the entity
+				path.append(PATH_SEPARATOR).append(ReservedWordHandler.escapeReservedWords(ngsiLdAttribute.path().get(i)));
+			} else {
+				path.append(ngsiLdAttribute.path().get(i));
+			}
+		}
+		compiledAttribute = new CompiledAttribute(path.toString(), ngsiLdAttribute.type());
+		if (compiledAttributes.size() < MAX_COMPILED_ATTRIBUTES) {
+			compiledAttributes.putIfAbsent(attribute, compiledAttribute);
+		}
+		return compiledAttribute;
+	}
+
+	private static List<String> splitPath(String attribute) {
+		List<String> path = new ArrayList<>();
+		int start = 0;
+		int separatorIndex;
+		while ((separatorIndex = attribute.indexOf(PATH_SEPARATOR, start)) >= 0) {
+			path.add(attribute.substring(start, separatorIndex));
+			start = separatorIndex + 1;
+		}
+		path.add(attribute.substring(start));
+		return path;
+	}
+
+	/**
+	 * Attribute, translated to its NGSI-LD path.
+	 */
+	private record CompiledAttribute(String path, QueryAttributeType type) {
+
+		String term(String operator, Object value) {
+			if (value == null) {
+				throw new MappingException(String.format("Cannot compare %s with null.", path));
+			}
+			return path + operator + formatValue(value);
+		}
+
+		private String formatValue(Object value) {
+			if (value instanceof Number number) {
+				return number instanceof BigDecimal bigDecimal ? bigDecimal.toPlainString() : number.toString();
+			}
+			if (type == QueryAttributeType.NUMBER) {
+				throw new MappingException(String.format("The attribute %s requires a number, but was %s.", path, value));
+			}
+			if (value instanceof Boolean) {
+				return value.toString();
+			}
+			if (type == QueryAttributeType.BOOLEAN) {
+				throw new MappingException(String.format("The attribute %s requires a boolean, but was %s.", path, value));
+			}
+			return quote(String.valueOf(value));
+		}
+
+		private static String quote(String value) {
+			StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				if (c == '"' || c == '\\') {
+					quoted.append('\\');
+				}
+				quoted.append(c);
+			}
+			return quoted.append('"').toString();
+		}
+	}
+
+	/**
+	 * Term of the query, waiting for its comparison.
+	 *
+	 * @param <T> the mapped class
+	 */
+	public static final class Condition<T> {
+
+		private final Query<T> query;
+		private final CompiledAttribute attribute;
+		private final char operator;
+
+		private Condition(Query<T> query, CompiledAttribute attribute, char operator) {
+			this.query = query;
+			this.attribute = attribute;
+			this.operator = operator;
+		}
+
+		public Query<T> eq(Object value) {
+			return query.addTerm(operator, attribute.term("==", value));
+		}
+
+		public Query<T> ne(Object value) {
+			return query.addTerm(operator, attribute.term("!=", value));
+		}
+
+		public Query<T> gt(Object value) {
+			return query.addTerm(operator, attribute.term(">", value));
+		}
+
+		public Query<T> ge(Object value) {
+			return query.addTerm(operator, attribute.term(">=", value));
+		}
+
+		public Query<T> lt(Object value) {
+			return query.addTerm(operator, attribute.term("<", value));
+		}
+
+		public Query<T> le(Object value) {
+			return query.addTerm(operator, attribute.term("<=", value));
+		}
+	}
+}
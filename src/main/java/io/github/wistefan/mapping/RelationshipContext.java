@@ -0,0 +1,75 @@
+package io.github.wistefan.mapping;
+
+import org.fiware.ngsi.model.EntityVO;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * State of a single mapping from NGSI-LD, passed down the object graph. Holds the related entities, as retrieved
+ * level-by-level before the mapping, the loader for lazy relationships, the objects under construction on the current
+ * path, to break cycles, and the depth of the objects to be created with it.
+ */
+final class RelationshipContext {
+
+	private final Map<String, EntityVO> entities;
+	private final LazyRelationshipLoader lazyRelationshipLoader;
+	private final Map<ObjectKey, Object> ancestors;
+	private final int depth;
+
+	private RelationshipContext(Map<String, EntityVO> entities, LazyRelationshipLoader lazyRelationshipLoader, Map<ObjectKey, Object> ancestors, int depth) {
+		this.entities = entities;
+		this.lazyRelationshipLoader = lazyRelationshipLoader;
+		this.ancestors = ancestors;
+		this.depth = depth;
+	}
+
+	/**
+	 * Create the context for mapping root entities, using the given related entities. All lazy relationships of the
+	 * mapping are loaded through the given loader.
+	 */
+	static RelationshipContext of(Map<String, EntityVO> entities, LazyRelationshipLoader lazyRelationshipLoader) {
+		return new RelationshipContext(entities, lazyRelationshipLoader, Map.of(), 0);
+	}
+
+	/**
+	 * Create the context for the relationships of the given object.
+	 *
+	 * @param targetClass class of the object under construction
+	 * @param id          id of the object under construction
+	 * @param object      the object under construction
+	 * @return the context to be used for all objects related to the given one
+	 */
+	RelationshipContext enter(Class<?> targetClass, String id, Object object) {
+		Map<ObjectKey, Object> path = new HashMap<>(ancestors);
+		path.put(new ObjectKey(targetClass, id), object);
+		return new RelationshipContext(entities, lazyRelationshipLoader, path, depth + 1);
+	}
+
+	Optional<EntityVO> getEntity(URI id) {
+		return Optional.ofNullable(entities.get(id.toString()));
+	}
+
+	LazyRelationshipLoader getLazyRelationshipLoader() {
+		return lazyRelationshipLoader;
+	}
+
+	/**
+	 * Return the object of the given class and id, if it is already under construction on the current path.
+	 */
+	<T> Optional<T> getAncestor(Class<T> targetClass, String id) {
+		return Optional.ofNullable(ancestors.get(new ObjectKey(targetClass, id))).map(targetClass::cast);
+	}
+
+	/**
+	 * Depth of the objects to be created with this context, 0 for the root entities.
+	 */
+	int getDepth() {
+		return depth;
+	}
+
+	private record ObjectKey(Class<?> targetClass, String id) {
+	}
+}
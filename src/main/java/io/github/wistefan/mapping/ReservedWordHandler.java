@@ -73,9 +73,7 @@ public class ReservedWordHandler {
 	 */
 	public static String removeEscape(String key) {
 		if (isReservedProperty(key)) {
-			var w = key.replaceFirst(ESCAPE_PREFIX, "");
-			log.info("Done {}", w);
-			return w;
+			return key.substring(ESCAPE_PREFIX.length());
 		}
 		return key;
 	}
@@ -97,7 +95,7 @@ public class ReservedWordHandler {
 		if (!isReservedProperty(key)) {
 			return false;
 		}
-		String unescaped = key.replaceFirst(ESCAPE_PREFIX, "");
+		String unescaped = key.substring(ESCAPE_PREFIX.length());
 		return !VO_FIELD_COLLISIONS.contains(unescaped);
 	}
 
@@ -0,0 +1,177 @@
+package io.github.wistefan.mapping;
+
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.UnmappedPropertiesSetter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable description of how NGSI-LD attributes are written into objects of a certain class. The plan is built once
+ * per class, by scanning the public methods for {@link AttributeSetter} and {@link UnmappedPropertiesSetter}
+ * annotations, and cached for the lifetime of the class.
+ */
+final class SetterMappingPlan {
+
+	private static final ClassValue<SetterMappingPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected SetterMappingPlan computeValue(Class<?> type) {
+			return new SetterMappingPlan(type);
+		}
+	};
+
+	/**
+	 * Setters by the target name of their attribute. If multiple methods declare the same target name, the first one
+	 * returned by {@link Class#getMethods()} wins.
+	 */
+	private final Map<String, SetterEntry> setters;
+
+	/**
+	 * Setters of relationships, that have to be resolved through the {@link EntitiesRepository} before the mapping.
+	 */
+	private final List<AttributeSetter> relationshipSetters;
+
+	/**
+	 * Target names of all relationship setters, including the ones constructed from the properties.
+	 */
+	private final Set<String> relationshipAttributes;
+
+	private final Accessors.Setter unmappedPropertiesSetter;
+
+	private final Accessors.IdConstructor idConstructor;
+
+	private SetterMappingPlan(Class<?> targetClass) {
+		Map<String, SetterEntry> setterMap = new LinkedHashMap<>();
+		List<AttributeSetter> relationships = new ArrayList<>();
+		Method unmappedSetter = null;
+		for (Method method : targetClass.getMethods()) {
+			AttributeSetter attributeSetter = method.getAnnotation(AttributeSetter.class);
+			if (attributeSetter != null) {
+				SetterEntry setterEntry = SetterEntry.of(targetClass, method, attributeSetter);
+				setterMap.putIfAbsent(attributeSetter.targetName(), setterEntry);
+				if (isResolvedRelationship(attributeSetter) && !setterEntry.isLazy()) {
+					relationships.add(attributeSetter);
+				}
+			}
+			if (unmappedSetter == null && method.isAnnotationPresent(UnmappedPropertiesSetter.class)) {
+				unmappedSetter = method;
+			}
+		}
+		this.setters = Collections.unmodifiableMap(setterMap);
+		this.relationshipSetters = List.copyOf(relationships);
+		this.relationshipAttributes = setterMap.values()
+				.stream()
+				.filter(setterEntry -> isRelationship(setterEntry.annotation()))
+				.map(setterEntry -> setterEntry.annotation().targetName())
+				.collect(Collectors.toUnmodifiableSet());
+		this.unmappedPropertiesSetter = unmappedSetter == null ? null : Accessors.setter(targetClass, unmappedSetter);
+		this.idConstructor = Accessors.idConstructor(targetClass).orElse(null);
+	}
+
+	/**
+	 * Return the (cached) plan for the given class.
+	 */
+	static SetterMappingPlan forClass(Class<?> targetClass) {
+		return PLANS.get(targetClass);
+	}
+
+	/**
+	 * Get the setter for the attribute with the given target name, if one is declared.
+	 */
+	Optional<SetterEntry> getSetter(String targetName) {
+		return Optional.ofNullable(setters.get(targetName));
+	}
+
+	/**
+	 * All declared attribute setters.
+	 */
+	Collection<SetterEntry> getSetters() {
+		return setters.values();
+	}
+
+	/**
+	 * Attribute setters of relationships that are neither constructed from the properties nor lazy, e.g. whose related
+	 * entities have to be retrieved before the mapping.
+	 */
+	List<AttributeSetter> getRelationshipSetters() {
+		return relationshipSetters;
+	}
+
+	Set<String> getRelationshipAttributes() {
+		return relationshipAttributes;
+	}
+
+	Optional<Accessors.Setter> getUnmappedPropertiesSetter() {
+		return Optional.ofNullable(unmappedPropertiesSetter);
+	}
+
+	/**
+	 * The constructor taking the entity id as its only parameter, empty if the class does not declare one.
+	 */
+	Optional<Accessors.IdConstructor> getIdConstructor() {
+		return Optional.ofNullable(idConstructor);
+	}
+
+	private static boolean isRelationship(AttributeSetter attributeSetter) {
+		return attributeSetter.value() == AttributeType.RELATIONSHIP || attributeSetter.value() == AttributeType.RELATIONSHIP_LIST;
+	}
+
+	private static boolean isResolvedRelationship(AttributeSetter attributeSetter) {
+		// we don't need to retrieve entities that should be filled from the properties.
+		return isRelationship(attributeSetter) && !attributeSetter.fromProperties();
+	}
+
+	/**
+	 * A single attribute setter of the class.
+	 *
+	 * @param setter              accessor of the setter method
+	 * @param annotation          the {@link AttributeSetter} declared on the method
+	 * @param singleParameterType        type of the setter's parameter, empty if the method does not declare exactly one
+	 * @param singleGenericParameterType generic type of the setter's parameter, including its type arguments
+	 */
+	record SetterEntry(Accessors.Setter setter, AttributeSetter annotation, Optional<Class<?>> singleParameterType,
+					   Optional<Type> singleGenericParameterType) {
+
+		private static SetterEntry of(Class<?> targetClass, Method method, AttributeSetter annotation) {
+			boolean singleParameter = method.getParameterCount() == 1;
+			Optional<Class<?>> parameterType = singleParameter ? Optional.of(method.getParameterTypes()[0]) : Optional.empty();
+			Optional<Type> genericParameterType = singleParameter ? Optional.of(method.getGenericParameterTypes()[0]) : Optional.empty();
+			return new SetterEntry(Accessors.setter(targetClass, method), annotation, parameterType, genericParameterType);
+		}
+
+		Method method() {
+			return setter.method();
+		}
+
+		/**
+		 * Should the related entities be retrieved lazily?
+		 */
+		boolean isLazy() {
+			return annotation.lazy() || singleParameterType.filter(LazyRelationship.class::equals).isPresent();
+		}
+
+		/**
+		 * Return the type of the setter's parameter.
+		 */
+		Class<?> parameterType() {
+			return singleParameterType.orElseThrow(() -> new MappingException("Setter method should only have one parameter declared."));
+		}
+
+		/**
+		 * Return the generic type of the setter's parameter, f.e. {@code List<Integer>}.
+		 */
+		Type genericParameterType() {
+			return singleGenericParameterType.orElseThrow(() -> new MappingException("Setter method should only have one parameter declared."));
+		}
+	}
+}
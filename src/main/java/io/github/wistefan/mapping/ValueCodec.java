@@ -0,0 +1,54 @@
+package io.github.wistefan.mapping;
+
+import java.util.function.Function;
+
+/**
+ * Codec for values to be mapped as plain NGSI-LD property values, without converting them to a json object first.
+ * Registered at the {@link ValueCodecRegistry}.
+ *
+ * @param <T> type of the values
+ */
+public interface ValueCodec<T> {
+
+	/**
+	 * Encode the value into its NGSI-LD representation.
+	 *
+	 * @param value the value to encode, never null
+	 * @return the encoded value, has to be a {@link String}, {@link Number} or {@link Boolean}
+	 */
+	Object encode(T value);
+
+	/**
+	 * Decode the value from its NGSI-LD representation.
+	 *
+	 * @param encoded the encoded value, as read from NGSI-LD, never null
+	 * @return the decoded value
+	 * @throws IllegalArgumentException if the value cannot be decoded
+	 */
+	T decode(Object encoded);
+
+	/**
+	 * Codec for values represented as strings.
+	 *
+	 * @param encoder function to create the string representation
+	 * @param decoder function to parse the string representation
+	 * @param <T>     type of the values
+	 * @return the codec
+	 */
+	static <T> ValueCodec<T> ofString(Function<T, String> encoder, Function<String, T> decoder) {
+		return new ValueCodec<>() {
+			@Override
+			public Object encode(T value) {
+				return encoder.apply(value);
+			}
+
+			@Override
+			public T decode(Object encoded) {
+				if (encoded instanceof String stringValue) {
+					return decoder.apply(stringValue);
+				}
+				throw new IllegalArgumentException(String.format("Cannot decode %s from a non-string value.", encoded));
+			}
+		};
+	}
+}
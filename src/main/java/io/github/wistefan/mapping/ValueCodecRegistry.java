@@ -0,0 +1,93 @@
+package io.github.wistefan.mapping;
+
+import javax.inject.Singleton;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the {@link ValueCodec}s, used by the {@link JavaObjectMapper} and the {@link EntityVOMapper}. Values with
+ * a codec are mapped as plain property values in both directions, without converting them through jackson.
+ * <p>
+ * Codecs for {@link UUID}, {@link LocalDate}, {@link LocalDateTime}, {@link LocalTime}, {@link OffsetDateTime},
+ * {@link ZonedDateTime}, {@link Duration} and {@link Period} are registered by default, using their ISO-8601
+ * representations. A codec is used for its class and all subclasses, the codec of the most specific class wins. Codecs
+ * should be registered before the registry is used, since the lookups are cached per class. The registry is a bean, to
+ * share the codecs between both mappers.
+ */
+@Singleton
+public final class ValueCodecRegistry {
+
+	private final Map<Class<?>, ValueCodec<?>> codecs = new ConcurrentHashMap<>();
+
+	private volatile ClassValue<Optional<ValueCodec<Object>>> lookup = newLookup();
+
+	public ValueCodecRegistry() {
+		register(UUID.class, ValueCodec.ofString(UUID::toString, UUID::fromString));
+		register(LocalDate.class, ValueCodec.ofString(LocalDate::toString, LocalDate::parse));
+		register(LocalDateTime.class, ValueCodec.ofString(LocalDateTime::toString, LocalDateTime::parse));
+		register(LocalTime.class, ValueCodec.ofString(LocalTime::toString, LocalTime::parse));
+		register(OffsetDateTime.class, ValueCodec.ofString(OffsetDateTime::toString, OffsetDateTime::parse));
+		register(ZonedDateTime.class, ValueCodec.ofString(ZonedDateTime::toString, ZonedDateTime::parse));
+		register(Duration.class, ValueCodec.ofString(Duration::toString, Duration::parse));
+		register(Period.class, ValueCodec.ofString(Period::toString, Period::parse));
+	}
+
+	/**
+	 * Register the codec for the given class, replacing a codec already registered for it.
+	 *
+	 * @param valueClass class of the values
+	 * @param codec      the codec to use
+	 * @param <T>        type of the values
+	 * @return the registry
+	 */
+	public synchronized <T> ValueCodecRegistry register(Class<T> valueClass, ValueCodec<T> codec) {
+		codecs.put(valueClass, codec);
+		// previously cached lookups might be outdated now
+		lookup = newLookup();
+		return this;
+	}
+
+	/**
+	 * Get the codec to be used for the given class.
+	 */
+	public Optional<ValueCodec<Object>> getCodec(Class<?> valueClass) {
+		return lookup.get(valueClass);
+	}
+
+	/**
+	 * Encode the value with its codec, or return it unchanged if no codec exists.
+	 */
+	Object encode(Object value) {
+		if (value == null) {
+			return null;
+		}
+		return getCodec(value.getClass())
+				.map(codec -> codec.encode(value))
+				.orElse(value);
+	}
+
+	private ClassValue<Optional<ValueCodec<Object>>> newLookup() {
+		return new ClassValue<>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			protected Optional<ValueCodec<Object>> computeValue(Class<?> valueClass) {
+				for (Class<?> currentClass = valueClass; currentClass != null; currentClass = currentClass.getSuperclass()) {
+					ValueCodec<?> codec = codecs.get(currentClass);
+					if (codec != null) {
+						return Optional.of((ValueCodec<Object>) codec);
+					}
+				}
+				return Optional.empty();
+			}
+		};
+	}
+}
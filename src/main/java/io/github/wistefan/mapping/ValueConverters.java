@@ -0,0 +1,221 @@
+package io.github.wistefan.mapping;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts values, as read from NGSI-LD, into the types expected by the target objects. Replaces
+ * {@link ObjectMapper#convertValue(Object, Class)}, with a converter per target type, created once and cached:
+ * <ul>
+ *     <li>strings, booleans and numbers that already match the target type are used as they are</li>
+ *     <li>numbers are widened or narrowed directly, as long as no precision is lost</li>
+ *     <li>enums and {@link Instant}s are looked up or parsed directly from strings</li>
+ *     <li>types with a {@link ValueCodec} in the {@link ValueCodecRegistry} are decoded by it</li>
+ *     <li>lists of numbers are copied directly into primitive arrays</li>
+ *     <li>everything else is converted through an {@link ObjectReader}, bound to the full generic type</li>
+ * </ul>
+ * Whenever a fast path does not apply, the value is converted by jackson, e.g. the result is the same as with
+ * {@link ObjectMapper#convertValue(Object, Class)}.
+ */
+@Slf4j
+final class ValueConverters {
+
+	private final ObjectMapper objectMapper;
+	private final ValueCodecRegistry valueCodecs;
+	private final Map<Type, ValueConverter> converters = new ConcurrentHashMap<>();
+
+	ValueConverters(ObjectMapper objectMapper, ValueCodecRegistry valueCodecs) {
+		this.objectMapper = objectMapper;
+		this.valueCodecs = valueCodecs;
+	}
+
+	/**
+	 * Convert the value to the given type.
+	 *
+	 * @param value      the value to convert
+	 * @param targetType type to convert to, can be generic
+	 * @return the converted value, null if the value is null
+	 * @throws IllegalArgumentException if the value cannot be converted
+	 */
+	Object convert(Object value, Type targetType) {
+		if (value == null) {
+			return null;
+		}
+		return converters.computeIfAbsent(targetType, this::newConverter).convert(value);
+	}
+
+	/**
+	 * Convert the value to the given class.
+	 *
+	 * @see #convert(Object, Type)
+	 */
+	<T> T convert(Object value, Class<T> targetClass) {
+		// primitive classes cannot cast their (boxed) values
+		return boxed(targetClass).cast(convert(value, (Type) targetClass));
+	}
+
+	/**
+	 * The wrapper class of a primitive class, the class itself otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Class<T> boxed(Class<T> targetClass) {
+		// the class object of a primitive is typed with its wrapper, e.g. int.class is a Class<Integer>
+		return (Class<T>) MethodType.methodType(targetClass).wrap().returnType();
+	}
+
+	private ValueConverter newConverter(Type targetType) {
+		JavaType javaType = objectMapper.getTypeFactory().constructType(targetType);
+		ValueConverter jacksonConverter = jacksonConverter(javaType);
+		Class<?> rawClass = javaType.getRawClass();
+		ValueConverter typeConverter = typeConverter(rawClass, jacksonConverter);
+		// the codec is resolved on every conversion, since codecs can be registered after the converter was created
+		return value -> {
+			Optional<ValueCodec<Object>> valueCodec = valueCodecs.getCodec(rawClass);
+			if (valueCodec.isPresent()) {
+				return decode(value, rawClass, valueCodec.get(), jacksonConverter);
+			}
+			return typeConverter.convert(value);
+		};
+	}
+
+	private ValueConverter typeConverter(Class<?> rawClass, ValueConverter jacksonConverter) {
+		if (rawClass == String.class) {
+			return value -> value instanceof String ? value : jacksonConverter.convert(value);
+		} else if (rawClass == Boolean.class || rawClass == boolean.class) {
+			return value -> value instanceof Boolean ? value : jacksonConverter.convert(value);
+		} else if (rawClass == Integer.class || rawClass == int.class) {
+			return value -> toInteger(value, jacksonConverter);
+		} else if (rawClass == Long.class || rawClass == long.class) {
+			return value -> isIntegral(value) ? (Object) ((Number) value).longValue() : jacksonConverter.convert(value);
+		} else if (rawClass == Double.class || rawClass == double.class) {
+			return value -> isIntegral(value) || value instanceof Double || value instanceof Float ? (Object) ((Number) value).doubleValue() : jacksonConverter.convert(value);
+		} else if (rawClass == Float.class || rawClass == float.class) {
+			return value -> isIntegral(value) || value instanceof Double || value instanceof Float ? (Object) ((Number) value).floatValue() : jacksonConverter.convert(value);
+		} else if (rawClass == BigDecimal.class || rawClass == BigInteger.class) {
+			return value -> rawClass.isInstance(value) ? value : jacksonConverter.convert(value);
+		} else if (rawClass.isEnum()) {
+			return enumConverter(rawClass, jacksonConverter);
+		} else if (rawClass == Instant.class) {
+			return value -> toInstant(value, jacksonConverter);
+		} else if (CompactLists.isPrimitiveArray(rawClass)) {
+			return value -> toPrimitiveArray(value, rawClass, jacksonConverter);
+		}
+		return jacksonConverter;
+	}
+
+	private static Object toInteger(Object value, ValueConverter jacksonConverter) {
+		if (value instanceof Integer) {
+			return value;
+		} else if (value instanceof Short || value instanceof Byte) {
+			return ((Number) value).intValue();
+		} else if (value instanceof Long longValue && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+			return longValue.intValue();
+		}
+		return jacksonConverter.convert(value);
+	}
+
+	private static Object toInstant(Object value, ValueConverter jacksonConverter) {
+		if (value instanceof Instant) {
+			return value;
+		} else if (value instanceof String stringValue) {
+			try {
+				return Instant.parse(stringValue);
+			} catch (DateTimeParseException e) {
+				log.debug("{} is not an ISO-8601 instant, convert through jackson.", stringValue);
+			}
+		}
+		return jacksonConverter.convert(value);
+	}
+
+	private static Object decode(Object value, Class<?> rawClass, ValueCodec<Object> valueCodec, ValueConverter jacksonConverter) {
+		if (rawClass.isInstance(value)) {
+			return value;
+		}
+		try {
+			return valueCodec.decode(value);
+		} catch (RuntimeException e) {
+			log.debug("Was not able to decode {} as {}, convert through jackson.", value, rawClass, e);
+		}
+		return jacksonConverter.convert(value);
+	}
+
+	private static Object toPrimitiveArray(Object value, Class<?> arrayClass, ValueConverter jacksonConverter) {
+		if (arrayClass.isInstance(value)) {
+			return value;
+		} else if (value instanceof List<?> values) {
+			try {
+				return CompactLists.toPrimitiveArray(values, arrayClass);
+			} catch (IllegalArgumentException e) {
+				log.debug("{} cannot be copied into {}, convert through jackson.", value, arrayClass);
+			}
+		}
+		return jacksonConverter.convert(value);
+	}
+
+	private static boolean isIntegral(Object value) {
+		return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+	}
+
+	/**
+	 * Look up enum constants by their json representation. Only used if every constant can be read back from its own
+	 * representation, to respect any jackson configuration of the enum.
+	 */
+	private ValueConverter enumConverter(Class<?> enumClass, ValueConverter jacksonConverter) {
+		Map<String, Object> constants = new HashMap<>();
+		for (Object constant : enumClass.getEnumConstants()) {
+			try {
+				if (!(objectMapper.convertValue(constant, Object.class) instanceof String representation)
+						|| objectMapper.convertValue(representation, enumClass) != constant) {
+					return jacksonConverter;
+				}
+				constants.put(representation, constant);
+			} catch (IllegalArgumentException e) {
+				return jacksonConverter;
+			}
+		}
+		return value -> value instanceof String stringValue && constants.containsKey(stringValue) ? constants.get(stringValue) : jacksonConverter.convert(value);
+	}
+
+	/**
+	 * Serialize the value into a token buffer and read it as the target type, as done by
+	 * {@link ObjectMapper#convertValue(Object, Class)}, but with the reader resolved only once.
+	 */
+	private ValueConverter jacksonConverter(JavaType javaType) {
+		ObjectReader reader = objectMapper.readerFor(javaType);
+		ObjectWriter writer = objectMapper.writer().without(SerializationFeature.WRAP_ROOT_VALUE);
+		boolean useBigDecimals = objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+		return value -> {
+			TokenBuffer tokenBuffer = new TokenBuffer(objectMapper, false).forceUseOfBigDecimal(useBigDecimals);
+			try {
+				writer.writeValue(tokenBuffer, value);
+				return reader.readValue(tokenBuffer.asParser(objectMapper));
+			} catch (IOException e) {
+				throw new IllegalArgumentException(e.getMessage(), e);
+			}
+		};
+	}
+
+	@FunctionalInterface
+	private interface ValueConverter {
+		Object convert(Object value);
+	}
+}
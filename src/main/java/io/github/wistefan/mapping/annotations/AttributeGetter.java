@@ -28,6 +28,13 @@ public @interface AttributeGetter {
 	 */
 	boolean embedProperty() default false;
 
+	/**
+	 * Should a list of plain values(numbers, strings or booleans) be mapped as a single property, containing the whole
+	 * list, instead of one property instance per entry? Does only apply for AttributeType.PROPERTY. Primitive arrays are
+	 * always mapped that way.
+	 */
+	boolean compact() default false;
+
 }
 
 
@@ -34,4 +34,11 @@ public @interface AttributeSetter {
 	 */
 	boolean fromProperties() default false;
 
+	/**
+	 * Should the related entities be retrieved lazily? Does only apply for AttributeType.RELATIONSHIP or AttributeType.RELATIONSHIP_LIST.
+	 * If set to true, the setter receives a {@link io.github.wistefan.mapping.LazyRelationship}(or a list of them) instead of the
+	 * related object, the entity is only retrieved when the relationship is loaded. Setters of a LazyRelationship are always lazy.
+	 */
+	boolean lazy() default false;
+
 }
@@ -0,0 +1,285 @@
+package io.github.wistefan.mapping.processor;
+
+import io.github.wistefan.mapping.MappingAccessors;
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.DatasetId;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import io.github.wistefan.mapping.annotations.RelationshipObject;
+import io.github.wistefan.mapping.annotations.UnmappedPropertiesGetter;
+import io.github.wistefan.mapping.annotations.UnmappedPropertiesSetter;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Annotation processor generating {@link MappingAccessors} for all classes annotated with {@link MappingEnabled}.
+ * Besides generating the accessors, it validates the mapping annotations at compile time, e.g. the number of id and
+ * type methods and the parameters of the setters.
+ */
+@SupportedAnnotationTypes("io.github.wistefan.mapping.annotations.MappingEnabled")
+public class MappingAccessorsProcessor extends AbstractProcessor {
+
+	private static final List<Class<? extends Annotation>> GETTER_ANNOTATIONS = List.of(EntityId.class, EntityType.class,
+			AttributeGetter.class, UnmappedPropertiesGetter.class, RelationshipObject.class, DatasetId.class);
+	private static final List<Class<? extends Annotation>> SETTER_ANNOTATIONS = List.of(AttributeSetter.class,
+			UnmappedPropertiesSetter.class);
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getElementsAnnotatedWith(MappingEnabled.class)) {
+			if (element.getKind() != ElementKind.CLASS) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+						"Only classes are supported for the mapping, no accessors will be generated.", element);
+				continue;
+			}
+			processMappedClass((TypeElement) element);
+		}
+		// do not claim the annotation, other processors might be interested in it, too.
+		return false;
+	}
+
+	private void processMappedClass(TypeElement mappedClass) {
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(mappedClass))
+				.stream()
+				.filter(method -> method.getModifiers().contains(Modifier.PUBLIC))
+				.filter(method -> !method.getModifiers().contains(Modifier.STATIC))
+				.toList();
+
+		if (!validate(mappedClass, methods)) {
+			return;
+		}
+		if (!isAccessibleFromPackage(mappedClass)) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+					"The class is not accessible from its package, no accessors will be generated.", mappedClass);
+			return;
+		}
+
+		Map<String, ExecutableElement> getters = uniqueByName(methods.stream()
+				.filter(method -> hasAnyAnnotation(method, GETTER_ANNOTATIONS))
+				.filter(method -> method.getParameters().isEmpty())
+				.filter(method -> method.getReturnType().getKind() != TypeKind.VOID)
+				.filter(this::throwsNoCheckedExceptions)
+				.toList());
+		Map<String, ExecutableElement> setters = uniqueByName(methods.stream()
+				.filter(method -> hasAnyAnnotation(method, SETTER_ANNOTATIONS))
+				.filter(method -> method.getParameters().size() == 1)
+				.filter(this::throwsNoCheckedExceptions)
+				.toList());
+
+		try {
+			writeAccessors(mappedClass, getIdConstructor(mappedClass), getters, setters);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					String.format("Was not able to write the mapping accessors: %s", e.getMessage()), mappedClass);
+		}
+	}
+
+	/**
+	 * Validate the mapping annotations of the class. Returns false if errors were reported.
+	 */
+	private boolean validate(TypeElement mappedClass, List<ExecutableElement> methods) {
+		boolean valid = true;
+		long idMethods = methods.stream().filter(method -> method.getAnnotation(EntityId.class) != null).count();
+		if (idMethods > 1) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					String.format("The class declares %s id methods, exactly one is expected.", idMethods), mappedClass);
+			valid = false;
+		}
+		long typeMethods = methods.stream().filter(method -> method.getAnnotation(EntityType.class) != null).count();
+		if (typeMethods > 1) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					String.format("The class declares %s type methods, exactly one is expected.", typeMethods), mappedClass);
+			valid = false;
+		}
+		for (ExecutableElement method : methods) {
+			if (hasAnyAnnotation(method, SETTER_ANNOTATIONS) && method.getParameters().size() != 1) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Setter method should only have one parameter declared.", method);
+				valid = false;
+			}
+			if (method.getAnnotation(AttributeGetter.class) != null && !method.getParameters().isEmpty()) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+						"Getter method should not have any parameters declared.", method);
+				valid = false;
+			}
+		}
+		boolean readsAttributes = methods.stream().anyMatch(method -> hasAnyAnnotation(method, SETTER_ANNOTATIONS));
+		if (readsAttributes && getStringConstructor(mappedClass).isEmpty()) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+					"The class declares setters, but no String id constructor. It cannot be created from entities.", mappedClass);
+		}
+		return valid;
+	}
+
+	private Optional<ExecutableElement> getStringConstructor(TypeElement mappedClass) {
+		TypeMirror stringType = processingEnv.getElementUtils().getTypeElement(String.class.getCanonicalName()).asType();
+		return ElementFilter.constructorsIn(mappedClass.getEnclosedElements())
+				.stream()
+				.filter(constructor -> constructor.getParameters().size() == 1)
+				.filter(constructor -> processingEnv.getTypeUtils().isSameType(constructor.getParameters().get(0).asType(), stringType))
+				.findFirst();
+	}
+
+	/**
+	 * Get the String id constructor, if it can be invoked from the generated accessors.
+	 */
+	private Optional<ExecutableElement> getIdConstructor(TypeElement mappedClass) {
+		if (mappedClass.getModifiers().contains(Modifier.ABSTRACT)
+				|| (mappedClass.getNestingKind() == NestingKind.MEMBER && !mappedClass.getModifiers().contains(Modifier.STATIC))) {
+			return Optional.empty();
+		}
+		return getStringConstructor(mappedClass)
+				.filter(constructor -> !constructor.getModifiers().contains(Modifier.PRIVATE))
+				.filter(this::throwsNoCheckedExceptions);
+	}
+
+	/**
+	 * The generated accessors live in the same package, thus neither the class nor any of its enclosing classes can
+	 * be private.
+	 */
+	private boolean isAccessibleFromPackage(TypeElement mappedClass) {
+		Element current = mappedClass;
+		while (current instanceof TypeElement) {
+			if (current.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (((TypeElement) current).getNestingKind() == NestingKind.LOCAL || ((TypeElement) current).getNestingKind() == NestingKind.ANONYMOUS) {
+				return false;
+			}
+			current = current.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private boolean hasAnyAnnotation(ExecutableElement method, List<Class<? extends Annotation>> annotations) {
+		return annotations.stream().anyMatch(annotation -> method.getAnnotation(annotation) != null);
+	}
+
+	private boolean throwsNoCheckedExceptions(ExecutableElement executable) {
+		TypeMirror runtimeException = processingEnv.getElementUtils().getTypeElement(RuntimeException.class.getCanonicalName()).asType();
+		TypeMirror error = processingEnv.getElementUtils().getTypeElement(Error.class.getCanonicalName()).asType();
+		return executable.getThrownTypes()
+				.stream()
+				.allMatch(thrownType -> processingEnv.getTypeUtils().isAssignable(thrownType, runtimeException)
+						|| processingEnv.getTypeUtils().isAssignable(thrownType, error));
+	}
+
+	/**
+	 * Methods are identified by their name at runtime, overloaded methods are left to reflection.
+	 */
+	private Map<String, ExecutableElement> uniqueByName(List<ExecutableElement> methods) {
+		Map<String, ExecutableElement> methodsByName = new LinkedHashMap<>();
+		Set<String> duplicates = new HashSet<>();
+		methods.forEach(method -> {
+			String methodName = method.getSimpleName().toString();
+			if (methodsByName.putIfAbsent(methodName, method) != null) {
+				duplicates.add(methodName);
+			}
+		});
+		duplicates.forEach(methodsByName::remove);
+		return methodsByName;
+	}
+
+	private void writeAccessors(TypeElement mappedClass, Optional<ExecutableElement> idConstructor,
+								Map<String, ExecutableElement> getters, Map<String, ExecutableElement> setters) throws IOException {
+		PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(mappedClass);
+		String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(mappedClass).toString();
+		String accessorsName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+				+ MappingAccessors.CLASS_NAME_SUFFIX;
+		String mappedType = processingEnv.getTypeUtils().erasure(mappedClass.asType()).toString();
+
+		List<String> lines = new ArrayList<>();
+		if (!packageName.isEmpty()) {
+			lines.add(String.format("package %s;", packageName));
+			lines.add("");
+		}
+		lines.add(String.format("@javax.annotation.processing.Generated(\"%s\")", getClass().getName()));
+		lines.add("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+		lines.add(String.format("public final class %s implements %s<%s> {", accessorsName, MappingAccessors.class.getName(), mappedType));
+		lines.add("");
+		lines.add(String.format("\tprivate static final java.util.Map<java.lang.String, java.util.function.Function<%s, java.lang.Object>> GETTERS;", mappedType));
+		lines.add(String.format("\tprivate static final java.util.Map<java.lang.String, java.util.function.BiConsumer<%s, java.lang.Object>> SETTERS;", mappedType));
+		lines.add("");
+		lines.add("\tstatic {");
+		lines.add(String.format("\t\tjava.util.Map<java.lang.String, java.util.function.Function<%s, java.lang.Object>> getters = new java.util.HashMap<>();", mappedType));
+		getters.forEach((name, method) ->
+				lines.add(String.format("\t\tgetters.put(\"%s\", o -> o.%s());", name, name)));
+		lines.add("\t\tGETTERS = java.util.Collections.unmodifiableMap(getters);");
+		lines.add(String.format("\t\tjava.util.Map<java.lang.String, java.util.function.BiConsumer<%s, java.lang.Object>> setters = new java.util.HashMap<>();", mappedType));
+		setters.forEach((name, method) ->
+				lines.add(String.format("\t\tsetters.put(\"%s\", (o, v) -> o.%s((%s) v));", name, name, boxedErasure(method.getParameters().get(0).asType()))));
+		lines.add("\t\tSETTERS = java.util.Collections.unmodifiableMap(setters);");
+		lines.add("\t}");
+		lines.add("");
+		lines.add("\t@Override");
+		lines.add(String.format("\tpublic java.util.Optional<java.util.function.Function<java.lang.String, %s>> getIdConstructor() {", mappedType));
+		if (idConstructor.isPresent()) {
+			lines.add(String.format("\t\treturn java.util.Optional.of(id -> new %s(id));", mappedType));
+		} else {
+			lines.add("\t\treturn java.util.Optional.empty();");
+		}
+		lines.add("\t}");
+		lines.add("");
+		lines.add("\t@Override");
+		lines.add(String.format("\tpublic java.util.Map<java.lang.String, java.util.function.Function<%s, java.lang.Object>> getGetters() {", mappedType));
+		lines.add("\t\treturn GETTERS;");
+		lines.add("\t}");
+		lines.add("");
+		lines.add("\t@Override");
+		lines.add(String.format("\tpublic java.util.Map<java.lang.String, java.util.function.BiConsumer<%s, java.lang.Object>> getSetters() {", mappedType));
+		lines.add("\t\treturn SETTERS;");
+		lines.add("\t}");
+		lines.add("}");
+
+		String qualifiedName = packageName.isEmpty() ? accessorsName : packageName + "." + accessorsName;
+		JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedName, mappedClass);
+		try (Writer writer = sourceFile.openWriter()) {
+			writer.write(String.join(System.lineSeparator(), lines));
+			writer.write(System.lineSeparator());
+		}
+	}
+
+	/**
+	 * Type to cast the setter argument to. Primitives are boxed, generic types are erased.
+	 */
+	private String boxedErasure(TypeMirror typeMirror) {
+		if (typeMirror.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) typeMirror).getQualifiedName().toString();
+		}
+		return processingEnv.getTypeUtils().erasure(typeMirror).toString();
+	}
+}
@@ -0,0 +1,218 @@
+package io.github.wistefan.mapping;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessorsTest {
+
+	@DisplayName("Primitive getters should be spun through the lambda metafactory and return the boxed value.")
+	@Test
+	public void testPrimitiveGetter() throws Exception {
+		Accessors.Getter getter = Accessors.getter(PublicBean.class, PublicBean.class.getMethod("getCount"));
+		PublicBean bean = new PublicBean("id");
+		bean.setCount(5);
+
+		assertLambda(getter.function());
+		assertEquals(5, getter.get(bean));
+	}
+
+	@DisplayName("Primitive setters should be spun through the lambda metafactory and unbox the value.")
+	@Test
+	public void testPrimitiveSetter() throws Exception {
+		Accessors.Setter setter = Accessors.setter(PublicBean.class, PublicBean.class.getMethod("setCount", int.class));
+		PublicBean bean = new PublicBean("id");
+
+		assertLambda(setter.consumer());
+		setter.set(bean, 7);
+		assertEquals(7, bean.getCount());
+	}
+
+	@DisplayName("Setting null through a primitive setter should be reported as invocation target exception.")
+	@Test
+	public void testPrimitiveSetterWithNull() {
+		Accessors.Setter setter = Accessors.setter(PublicBean.class, getMethod(PublicBean.class, "setCount", int.class));
+
+		assertThrows(InvocationTargetException.class, () -> setter.set(new PublicBean("id"), null));
+	}
+
+	@DisplayName("Fluent setters should be spun through the lambda metafactory, dropping their return value.")
+	@Test
+	public void testFluentSetter() throws Exception {
+		Accessors.Setter setter = Accessors.setter(PublicBean.class, PublicBean.class.getMethod("setName", String.class));
+		PublicBean bean = new PublicBean("id");
+
+		assertLambda(setter.consumer());
+		setter.set(bean, "name");
+		assertEquals("name", bean.getName());
+	}
+
+	@DisplayName("Accessors of non-public classes should be spun through the lambda metafactory.")
+	@Test
+	public void testNonPublicClass() throws Exception {
+		Accessors.IdConstructor idConstructor = Accessors.idConstructor(HiddenBean.class).orElseThrow();
+		Accessors.Getter getter = Accessors.getter(HiddenBean.class, HiddenBean.class.getDeclaredMethod("getValue"));
+		Accessors.Setter setter = Accessors.setter(HiddenBean.class, HiddenBean.class.getDeclaredMethod("setValue", long.class));
+
+		assertLambda(idConstructor.function());
+		assertLambda(getter.function());
+		assertLambda(setter.consumer());
+
+		HiddenBean bean = (HiddenBean) idConstructor.newInstance("id");
+		setter.set(bean, 3L);
+		assertEquals("id", bean.id);
+		assertEquals(3L, getter.get(bean));
+	}
+
+	@DisplayName("Classes without a String id constructor should not get an id constructor.")
+	@Test
+	public void testWithoutIdConstructor() {
+		assertTrue(Accessors.idConstructor(NoIdBean.class).isEmpty());
+	}
+
+	@DisplayName("Static getters and getters with parameters should fall back to reflection.")
+	@Test
+	public void testReflectiveGetter() throws Exception {
+		Accessors.Getter staticGetter = Accessors.getter(PublicBean.class, PublicBean.class.getMethod("getDefault"));
+		Accessors.Getter parameterGetter = Accessors.getter(PublicBean.class, PublicBean.class.getMethod("getPrefixed", String.class));
+
+		assertReflective(staticGetter.function());
+		assertReflective(parameterGetter.function());
+		assertEquals("default", staticGetter.get(new PublicBean("id")));
+		// the reflective call is made without arguments, the resulting IllegalArgumentException is reported like any other
+		assertThrows(InvocationTargetException.class, () -> parameterGetter.get(new PublicBean("id")));
+	}
+
+	@DisplayName("Void getters should fall back to reflection.")
+	@Test
+	public void testReflectiveVoidGetter() throws Exception {
+		Accessors.Getter getter = Accessors.getter(PublicBean.class, PublicBean.class.getMethod("reset"));
+		PublicBean bean = new PublicBean("id");
+		bean.setCount(5);
+
+		assertReflective(getter.function());
+		assertNull(getter.get(bean));
+		assertEquals(0, bean.getCount());
+	}
+
+	@DisplayName("Static setters should fall back to reflection.")
+	@Test
+	public void testReflectiveSetter() throws Exception {
+		Accessors.Setter setter = Accessors.setter(PublicBean.class, PublicBean.class.getMethod("setDefault", String.class));
+
+		assertReflective(setter.consumer());
+		setter.set(new PublicBean("id"), "changed");
+		assertEquals("changed", PublicBean.getDefault());
+		PublicBean.setDefault("default");
+	}
+
+	@DisplayName("Exceptions thrown by the accessed method should be reported as invocation target exception on the lambda path and as mapping exception on the reflective path.")
+	@Test
+	public void testFailingMethods() {
+		Accessors.Getter lambdaGetter = Accessors.getter(PublicBean.class, getMethod(PublicBean.class, "getFailing"));
+		Accessors.Getter reflectiveGetter = Accessors.getter(PublicBean.class, getMethod(PublicBean.class, "getStaticFailing"));
+
+		assertLambda(lambdaGetter.function());
+		assertReflective(reflectiveGetter.function());
+		InvocationTargetException lambdaException = assertThrows(InvocationTargetException.class, () -> lambdaGetter.get(new PublicBean("id")));
+		assertInstanceOf(IllegalStateException.class, lambdaException.getCause());
+		MappingException reflectiveException = assertThrows(MappingException.class, () -> reflectiveGetter.get(new PublicBean("id")));
+		assertInstanceOf(InvocationTargetException.class, reflectiveException.getCause());
+	}
+
+	// functions spun by the metafactory are nestmates of the accessed class, the fallback ones of the accessors
+	private static void assertLambda(Object function) {
+		assertNotEquals(Accessors.class, function.getClass().getNestHost());
+	}
+
+	private static void assertReflective(Object function) {
+		assertEquals(Accessors.class, function.getClass().getNestHost());
+	}
+
+	private static Method getMethod(Class<?> theClass, String name, Class<?>... parameterTypes) {
+		try {
+			return theClass.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static class PublicBean {
+
+		private static String defaultValue = "default";
+
+		private final String id;
+		private int count;
+		private String name;
+
+		public PublicBean(String id) {
+			this.id = id;
+		}
+
+		public static String getDefault() {
+			return defaultValue;
+		}
+
+		public static void setDefault(String value) {
+			defaultValue = value;
+		}
+
+		public static String getStaticFailing() {
+			throw new IllegalStateException("static failure");
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public PublicBean setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public String getPrefixed(String prefix) {
+			return prefix + id;
+		}
+
+		public void reset() {
+			count = 0;
+		}
+
+		public String getFailing() {
+			throw new IllegalStateException("failure");
+		}
+	}
+
+	private static class HiddenBean {
+
+		private final String id;
+		private long value;
+
+		private HiddenBean(String id) {
+			this.id = id;
+		}
+
+		private long getValue() {
+			return value;
+		}
+
+		private void setValue(long value) {
+			this.value = value;
+		}
+	}
+
+	public static class NoIdBean {
+	}
+}
@@ -0,0 +1,165 @@
+package io.github.wistefan.mapping.desc;
+
+import io.github.wistefan.mapping.CachingEntitiesRepository;
+import io.github.wistefan.mapping.EntitiesRepository;
+import org.fiware.ngsi.model.EntityVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingEntitiesRepositoryTest {
+
+	private static final URI ENTITY_1 = URI.create("urn:ngsi-ld:sub-entity:entity-1");
+	private static final URI ENTITY_2 = URI.create("urn:ngsi-ld:sub-entity:entity-2");
+
+	private final List<List<URI>> requestedIds = new ArrayList<>();
+	private final EntitiesRepository delegate = entityIds -> {
+		requestedIds.add(entityIds);
+		return Mono.just(entityIds.stream().map(id -> new EntityVO().id(id).type("sub-entity")).toList());
+	};
+	private final TestClock clock = new TestClock();
+
+	@BeforeEach
+	public void setup() {
+		requestedIds.clear();
+	}
+
+	@DisplayName("Only entities missing in the cache should be retrieved from the delegate.")
+	@Test
+	void retrieveOnlyMisses() {
+		CachingEntitiesRepository cachingRepository = new CachingEntitiesRepository(delegate, 10, Duration.ofMinutes(1), null, clock);
+
+		assertEquals(1, cachingRepository.getEntities(List.of(ENTITY_1)).block().size(), "The entity should be retrieved.");
+		assertEquals(2, cachingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).block().size(), "Both entities should be returned.");
+
+		assertEquals(List.of(List.of(ENTITY_1), List.of(ENTITY_2)), requestedIds, "Cached entities should not be requested again.");
+		assertEquals(1L, cachingRepository.getHitCount(), "The cached entity should count as hit.");
+		assertEquals(2L, cachingRepository.getMissCount(), "The retrieved entities should count as misses.");
+	}
+
+	@DisplayName("The least recently used entity should be evicted.")
+	@Test
+	void evictLeastRecentlyUsed() {
+		CachingEntitiesRepository cachingRepository = new CachingEntitiesRepository(delegate, 1, Duration.ofMinutes(1), null, clock);
+
+		cachingRepository.getEntities(List.of(ENTITY_1)).block();
+		cachingRepository.getEntities(List.of(ENTITY_2)).block();
+		cachingRepository.getEntities(List.of(ENTITY_1)).block();
+
+		assertEquals(List.of(List.of(ENTITY_1), List.of(ENTITY_2), List.of(ENTITY_1)), requestedIds, "The evicted entity should be requested again.");
+		assertEquals(2L, cachingRepository.getEvictionCount(), "Both evictions should be counted.");
+	}
+
+	@DisplayName("Entities should expire after the ttl or, if modified recently, based on the max staleness.")
+	@Test
+	void expireEntities() {
+		EntitiesRepository modifiedDelegate = entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(entityIds.stream()
+					.map(id -> new EntityVO().id(id).type("sub-entity"))
+					// entity 2 is unchanged for 100s, thus fresh for 10s
+					.map(entityVO -> entityVO.getId().equals(ENTITY_2) ? entityVO.modifiedAt(clock.instant().minusSeconds(100)) : entityVO)
+					.toList());
+		};
+		CachingEntitiesRepository cachingRepository = new CachingEntitiesRepository(modifiedDelegate, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), clock);
+
+		cachingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).block();
+		clock.advance(Duration.ofSeconds(20));
+		cachingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).block();
+		clock.advance(Duration.ofSeconds(60));
+		cachingRepository.getEntities(List.of(ENTITY_1)).block();
+
+		assertEquals(List.of(List.of(ENTITY_1, ENTITY_2), List.of(ENTITY_2), List.of(ENTITY_1)), requestedIds, "Expired entities should be requested again.");
+	}
+
+	@DisplayName("Entities should expire based on the configured freshness factor, skewed ones after the ttl.")
+	@Test
+	void expireEntitiesWithFreshnessFactor() {
+		EntitiesRepository modifiedDelegate = entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(entityIds.stream()
+					.map(id -> new EntityVO().id(id).type("sub-entity"))
+					// entity 1 is unchanged for 100s, thus fresh for 50s, entity 2 is modified in the future
+					.map(entityVO -> entityVO.modifiedAt(entityVO.getId().equals(ENTITY_1) ? clock.instant().minusSeconds(100) : clock.instant().plusSeconds(100)))
+					.toList());
+		};
+		CachingEntitiesRepository cachingRepository = new CachingEntitiesRepository(modifiedDelegate, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), 0.5, clock);
+
+		cachingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).block();
+		clock.advance(Duration.ofSeconds(40));
+		cachingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).block();
+		clock.advance(Duration.ofSeconds(15));
+		cachingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).block();
+
+		assertEquals(List.of(List.of(ENTITY_1, ENTITY_2), List.of(ENTITY_1)), requestedIds, "Entities should expire according to the freshness factor or the ttl.");
+		assertThrows(IllegalArgumentException.class, () -> new CachingEntitiesRepository(modifiedDelegate, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), 0, clock), "The freshness factor needs to be positive.");
+	}
+
+	@DisplayName("Projected entities should only be returned for the same projection.")
+	@Test
+	void cacheByProjection() {
+		List<List<String>> requestedAttrs = new ArrayList<>();
+		EntitiesRepository projectingDelegate = new EntitiesRepository() {
+			@Override
+			public Mono<List<EntityVO>> getEntities(List<URI> entityIds) {
+				return getEntities(entityIds, List.of());
+			}
+
+			@Override
+			public Mono<List<EntityVO>> getEntities(List<URI> entityIds, List<String> attrs) {
+				requestedAttrs.add(attrs);
+				return delegate.getEntities(entityIds);
+			}
+		};
+		CachingEntitiesRepository cachingRepository = new CachingEntitiesRepository(projectingDelegate, 10, Duration.ofMinutes(1), null, clock);
+
+		cachingRepository.getEntities(List.of(ENTITY_1), List.of("name", "count")).block();
+		cachingRepository.getEntities(List.of(ENTITY_1), List.of("count", "name")).block();
+		cachingRepository.getEntities(List.of(ENTITY_1)).block();
+		cachingRepository.getEntities(List.of(ENTITY_1), List.of("other")).block();
+
+		assertEquals(List.of(List.of("name", "count"), List.of()), requestedAttrs, "Projected entities should not be returned for other projections, complete ones for all.");
+		assertEquals(2L, cachingRepository.getHitCount(), "The same projection and the complete entity should count as hits.");
+
+		cachingRepository.invalidate(ENTITY_1);
+		cachingRepository.getEntities(List.of(ENTITY_1), List.of("name", "count")).block();
+		assertEquals(3, requestedAttrs.size(), "All projections of the entity should be invalidated.");
+	}
+
+	private static class TestClock extends Clock {
+
+		private Instant instant = Instant.parse("2023-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			instant = instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
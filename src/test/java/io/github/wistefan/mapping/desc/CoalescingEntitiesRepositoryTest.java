@@ -0,0 +1,136 @@
+package io.github.wistefan.mapping.desc;
+
+import io.github.wistefan.mapping.CoalescingEntitiesRepository;
+import io.github.wistefan.mapping.EntitiesRepository;
+import org.fiware.ngsi.model.EntityVO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoalescingEntitiesRepositoryTest {
+
+	private static final URI ENTITY_1 = URI.create("urn:ngsi-ld:sub-entity:entity-1");
+	private static final URI ENTITY_2 = URI.create("urn:ngsi-ld:sub-entity:entity-2");
+	private static final URI ENTITY_3 = URI.create("urn:ngsi-ld:sub-entity:entity-3");
+
+	@DisplayName("Concurrent requests for the same entities should share the pending retrieval.")
+	@Test
+	void coalesceConcurrentRequests() {
+		List<List<URI>> requestedIds = new ArrayList<>();
+		List<Sinks.One<List<EntityVO>>> pendingRetrievals = new ArrayList<>();
+		EntitiesRepository delegate = entityIds -> {
+			requestedIds.add(entityIds);
+			Sinks.One<List<EntityVO>> sink = Sinks.one();
+			pendingRetrievals.add(sink);
+			return sink.asMono();
+		};
+		CoalescingEntitiesRepository coalescingRepository = new CoalescingEntitiesRepository(delegate);
+
+		CompletableFuture<List<EntityVO>> firstRequest = coalescingRepository.getEntities(List.of(ENTITY_1, ENTITY_2)).toFuture();
+		CompletableFuture<List<EntityVO>> secondRequest = coalescingRepository.getEntities(List.of(ENTITY_2, ENTITY_3)).toFuture();
+		assertEquals(List.of(List.of(ENTITY_1, ENTITY_2), List.of(ENTITY_3)), requestedIds, "Entities in flight should not be requested again.");
+
+		pendingRetrievals.get(0).tryEmitValue(List.of(subEntity(ENTITY_1), subEntity(ENTITY_2)));
+		pendingRetrievals.get(1).tryEmitValue(List.of(subEntity(ENTITY_3)));
+		assertEquals(List.of(subEntity(ENTITY_1), subEntity(ENTITY_2)), firstRequest.join(), "The first request should receive its entities.");
+		assertEquals(List.of(subEntity(ENTITY_2), subEntity(ENTITY_3)), secondRequest.join(), "The second request should receive the shared entity.");
+
+		coalescingRepository.getEntities(List.of(ENTITY_1)).toFuture();
+		assertEquals(List.of(ENTITY_1), requestedIds.get(2), "Completed retrievals should not be shared anymore.");
+	}
+
+	@DisplayName("Requests subscribing concurrently should receive all their entities.")
+	@Test
+	void coalesceRequestsSubscribingConcurrently() throws Exception {
+		List<URI> entityIds = IntStream.range(0, 200)
+				.mapToObj(i -> URI.create("urn:ngsi-ld:sub-entity:entity-" + i))
+				.toList();
+		List<List<URI>> requestedIds = new CopyOnWriteArrayList<>();
+		EntitiesRepository delegate = ids -> {
+			requestedIds.add(ids);
+			return Mono.fromCallable(() -> ids.stream().map(CoalescingEntitiesRepositoryTest::subEntity).toList())
+					.subscribeOn(Schedulers.parallel());
+		};
+		CoalescingEntitiesRepository coalescingRepository = new CoalescingEntitiesRepository(delegate);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			for (int round = 0; round < 50; round++) {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<List<EntityVO>>> requests = new ArrayList<>();
+				for (int i = 0; i < 8; i++) {
+					List<URI> shuffledIds = new ArrayList<>(entityIds);
+					Collections.shuffle(shuffledIds);
+					requests.add(executorService.submit(() -> {
+						start.await();
+						return coalescingRepository.getEntities(shuffledIds).block(Duration.ofSeconds(10));
+					}));
+				}
+				start.countDown();
+				for (Future<List<EntityVO>> request : requests) {
+					assertEquals(entityIds.size(), request.get().size(), "Every request should receive all of its entities.");
+				}
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		requestedIds.clear();
+		assertEquals(entityIds.size(), coalescingRepository.getEntities(entityIds).block().size(), "All entities should be retrieved again.");
+		assertEquals(List.of(entityIds), requestedIds, "No retrieval should be left in flight.");
+	}
+
+	@DisplayName("Retrievals should only be shared by requests for the same projection.")
+	@Test
+	void coalesceByProjection() {
+		List<List<String>> requestedAttrs = new ArrayList<>();
+		List<Sinks.One<List<EntityVO>>> pendingRetrievals = new ArrayList<>();
+		EntitiesRepository delegate = new EntitiesRepository() {
+			@Override
+			public Mono<List<EntityVO>> getEntities(List<URI> entityIds) {
+				return getEntities(entityIds, List.of());
+			}
+
+			@Override
+			public Mono<List<EntityVO>> getEntities(List<URI> entityIds, List<String> attrs) {
+				requestedAttrs.add(attrs);
+				Sinks.One<List<EntityVO>> sink = Sinks.one();
+				pendingRetrievals.add(sink);
+				return sink.asMono();
+			}
+		};
+		CoalescingEntitiesRepository coalescingRepository = new CoalescingEntitiesRepository(delegate);
+
+		CompletableFuture<List<EntityVO>> projectedRequest = coalescingRepository.getEntities(List.of(ENTITY_1), List.of("name", "count")).toFuture();
+		CompletableFuture<List<EntityVO>> sameProjectionRequest = coalescingRepository.getEntities(List.of(ENTITY_1), List.of("count", "name")).toFuture();
+		CompletableFuture<List<EntityVO>> fullRequest = coalescingRepository.getEntities(List.of(ENTITY_1)).toFuture();
+		assertEquals(List.of(List.of("name", "count"), List.of()), requestedAttrs, "Only requests for the same projection should be shared.");
+
+		pendingRetrievals.get(0).tryEmitValue(List.of(subEntity(ENTITY_1)));
+		pendingRetrievals.get(1).tryEmitValue(List.of(subEntity(ENTITY_1)));
+		assertEquals(List.of(subEntity(ENTITY_1)), projectedRequest.join(), "The projected request should receive its entity.");
+		assertEquals(List.of(subEntity(ENTITY_1)), sameProjectionRequest.join(), "The shared request should receive the entity.");
+		assertEquals(List.of(subEntity(ENTITY_1)), fullRequest.join(), "The full request should receive its entity.");
+	}
+
+	private static EntityVO subEntity(URI id) {
+		return new EntityVO().id(id).type("sub-entity");
+	}
+}
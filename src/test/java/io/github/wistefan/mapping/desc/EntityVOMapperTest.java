@@ -23,11 +23,15 @@ import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Matchers.anyList;
@@ -123,6 +127,40 @@ class EntityVOMapperTest {
 		assertEquals(expectedPojo, myPojoWithUnmappedProperties, "The full pojo should be returned.");
 	}
 
+	@DisplayName("Unmapped properties should not share their values with the entity.")
+	@Test
+	void testUnmappedPropertiesAreCopied() throws Exception {
+		String entityString = "{\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\",\"id\":\"urn:ngsi-ld:my-pojo:the-entity\",\"type\":\"my-pojo\","
+				+ "\"plain\":{\"value\":{\"nested\":{\"a\":1},\"list\":[1,2]},\"type\":\"Property\"},"
+				+ "\"escaped\":{\"value\":{\"tmfEscaped-id\":\"the-id\",\"nested\":{\"b\":2}},\"type\":\"Property\"},"
+				+ "\"name\":{\"value\":\"my-name\",\"type\":\"Property\"}}";
+		EntityVO theEntity = OBJECT_MAPPER.readValue(entityString, EntityVO.class);
+		String entityJson = OBJECT_MAPPER.writeValueAsString(theEntity);
+
+		MyPojoWithUnmappedProperties firstPojo = entityVOMapper.fromEntityVO(theEntity, MyPojoWithUnmappedProperties.class).block();
+		Map<String, Object> plainValue = (Map<String, Object>) getUnmappedValue(firstPojo, "plain");
+		Map<String, Object> escapedValue = (Map<String, Object>) getUnmappedValue(firstPojo, "escaped");
+		assertEquals("the-id", escapedValue.get("id"), "Escaped keys should be unescaped.");
+
+		((Map<String, Object>) plainValue.get("nested")).put("a", 42);
+		((List<Object>) plainValue.get("list")).add(3);
+		((Map<String, Object>) escapedValue.get("nested")).clear();
+
+		assertEquals(entityJson, OBJECT_MAPPER.writeValueAsString(theEntity), "Changing the mapped values should not change the entity.");
+		MyPojoWithUnmappedProperties secondPojo = entityVOMapper.fromEntityVO(theEntity, MyPojoWithUnmappedProperties.class).block();
+		assertEquals(Map.of("nested", Map.of("a", 1), "list", List.of(1, 2)), getUnmappedValue(secondPojo, "plain"), "The unescaped value should be mapped again.");
+		assertEquals(Map.of("id", "the-id", "nested", Map.of("b", 2)), getUnmappedValue(secondPojo, "escaped"), "The escaped value should be mapped again.");
+	}
+
+	private static Object getUnmappedValue(MyPojoWithUnmappedProperties pojo, String name) {
+		return pojo.getUnmappedProperties()
+				.stream()
+				.filter(unmappedProperty -> unmappedProperty.getName().equals(name))
+				.findFirst()
+				.map(UnmappedProperty::getValue)
+				.orElseThrow();
+	}
+
 	@DisplayName("Map an entity with multiple not explicitly mapped properties.")
 	@Test
 	void testWithMultipleUnmappedProperties() throws Exception {
@@ -414,6 +452,42 @@ class EntityVOMapperTest {
 		assertEquals(expectedPojo, actual, "Reserved-word fields nested inside a mapped property must round-trip.");
 	}
 
+	@DisplayName("Map entities directly from json.")
+	@Test
+	void testFromJson() throws Exception {
+		MySubPropertyRefOrValue expectedSub = new MySubPropertyRefOrValue();
+		expectedSub.setId(URI.create("urn:ref:42"));
+		expectedSub.setValue("the-value");
+		expectedSub.setName("the-name");
+		MyPojoWithSubPropertyRefOrValue expectedPojo = new MyPojoWithSubPropertyRefOrValue("urn:ngsi-ld:complex-pojo:the-test-pojo");
+		expectedPojo.setMyRefOrValue(expectedSub);
+		expectedPojo.setMyRefOrValueList(List.of(expectedSub));
+
+		String entityString = "{"
+				+ "\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\","
+				+ "\"id\":\"urn:ngsi-ld:complex-pojo:the-test-pojo\","
+				+ "\"notMapped\":{\"type\":\"Property\",\"value\":{\"deep\":[1,2,3]}},"
+				+ "\"myRefOrValue\":{\"value\":{\"tmfEscaped-id\":\"urn:ref:42\",\"tmfEscaped-value\":\"the-value\",\"name\":\"the-name\"},\"type\":\"Property\"},"
+				+ "\"myRefOrValueList\":{\"type\":\"Property\",\"value\":{\"tmfEscaped-id\":\"urn:ref:42\",\"tmfEscaped-value\":\"the-value\",\"name\":\"the-name\"}},"
+				+ "\"type\":\"complex-pojo\""
+				+ "}";
+		assertEquals(expectedPojo, entityVOMapper.fromJson(entityString, MyPojoWithSubPropertyRefOrValue.class).block(), "Properties should be read directly from the json.");
+		assertEquals(entityVOMapper.fromEntityVO(OBJECT_MAPPER.readValue(entityString, EntityVO.class), MyPojoWithSubPropertyRefOrValue.class).block(),
+				entityVOMapper.fromJson(entityString.getBytes(), MyPojoWithSubPropertyRefOrValue.class).block(),
+				"The same object as from the entity should be created.");
+
+		MySubPropertyEntity expectedSubEntity = new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity");
+		MyPojoWithSubEntity expectedPojoWithSubEntity = new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:the-test-pojo");
+		expectedPojoWithSubEntity.setMySubProperty(expectedSubEntity);
+		EntityVO subEntity = new EntityVO().id(URI.create("urn:ngsi-ld:sub-entity:the-sub-entity")).type("sub-entity");
+		when(entitiesRepository.getEntities(anyList())).thenReturn(Mono.just(List.of(subEntity)));
+
+		String parentEntityString = "{\"id\":\"urn:ngsi-ld:complex-pojo:the-test-pojo\",\"type\":\"complex-pojo\",\"sub-entity\":{\"object\":\"urn:ngsi-ld:sub-entity:the-sub-entity\",\"type\":\"Relationship\"}}";
+		assertEquals(expectedPojoWithSubEntity, entityVOMapper.fromJson(parentEntityString, MyPojoWithSubEntity.class).block(), "Relationships should be resolved.");
+
+		assertThrows(MappingException.class, () -> entityVOMapper.fromJson("{\"id\":\"urn:ngsi-ld:complex-pojo:the-test-pojo\",\"type\":\"other\"}", MyPojoWithSubEntity.class).block(), "Entities of a different type should not be mapped.");
+	}
+
 	@DisplayName("Map Pojo with a mapped property-list whose elements carry reserved-word fields (id/value/type).")
 	@Test
 	void testPropertyListWithNestedReservedFieldsRoundTrip() throws Exception {
@@ -545,6 +619,169 @@ class EntityVOMapperTest {
 		assertEquals(expectedPojo, myPojoWithSubEntityEmbed, "The full pojo should be retrieved.");
 	}
 
+	@DisplayName("Map multiple entities with a single retrieval of their relationships.")
+	@Test
+	void testBatchMapping() throws JsonProcessingException {
+		String subEntityString = "{\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\",\"id\":\"urn:ngsi-ld:sub-entity:the-sub-entity\",\"type\":\"sub-entity\",\"name\":{\"type\":\"Property\",\"value\":\"myName\"}}";
+		EntityVO subEntity = OBJECT_MAPPER.readValue(subEntityString, EntityVO.class);
+
+		List<List<URI>> requestedIds = new ArrayList<>();
+		EntityVOMapper batchMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(List.of(subEntity));
+		});
+
+		String parentEntityTemplate = "{\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\",\"id\":\"urn:ngsi-ld:complex-pojo:%s\",\"type\":\"complex-pojo\",\"sub-entity\":{\"object\":\"urn:ngsi-ld:sub-entity:the-sub-entity\",\"type\":\"Relationship\"}}";
+		List<EntityVO> parentEntities = List.of(
+				OBJECT_MAPPER.readValue(String.format(parentEntityTemplate, "pojo-1"), EntityVO.class),
+				OBJECT_MAPPER.readValue(String.format(parentEntityTemplate, "pojo-2"), EntityVO.class));
+
+		MyPojoWithSubEntity expectedPojo1 = new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:pojo-1");
+		expectedPojo1.setMySubProperty(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity"));
+		MyPojoWithSubEntity expectedPojo2 = new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:pojo-2");
+		expectedPojo2.setMySubProperty(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity"));
+
+		assertEquals(List.of(expectedPojo1, expectedPojo2), batchMapper.fromEntityVOs(parentEntities, MyPojoWithSubEntity.class).collectList().block(), "All pojos should be mapped in order.");
+		assertEquals(List.of(List.of(URI.create("urn:ngsi-ld:sub-entity:the-sub-entity"))), requestedIds, "The relationships should be retrieved once, without duplicates.");
+	}
+
+	@DisplayName("The batch size should be at least 1.")
+	@Test
+	void testInvalidBatchSize() {
+		MappingProperties batchProperties = new MappingProperties();
+		assertThrows(IllegalArgumentException.class, () -> batchProperties.setBatchSize(0), "A batch size of 0 should be rejected.");
+		assertThrows(IllegalArgumentException.class, () -> batchProperties.setBatchSize(-1), "A negative batch size should be rejected.");
+		batchProperties.setBatchSize(1);
+		assertEquals(1, batchProperties.getBatchSize(), "A batch size of 1 should be accepted.");
+	}
+
+	@DisplayName("Map multiple entities without relationships, without retrieving anything.")
+	@Test
+	void testBatchMappingWithoutRelationships() throws JsonProcessingException {
+		List<List<URI>> requestedIds = new ArrayList<>();
+		EntityVOMapper batchMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(List.of());
+		});
+
+		String entityTemplate = "{\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\",\"id\":\"urn:ngsi-ld:complex-pojo:%s\",\"type\":\"complex-pojo\"}";
+		List<EntityVO> entities = List.of(
+				OBJECT_MAPPER.readValue(String.format(entityTemplate, "pojo-1"), EntityVO.class),
+				OBJECT_MAPPER.readValue(String.format(entityTemplate, "pojo-2"), EntityVO.class));
+
+		assertEquals(List.of(new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:pojo-1"), new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:pojo-2")),
+				batchMapper.fromEntityVOs(entities, MyPojoWithSubEntity.class).collectList().block(), "All pojos should be mapped in order.");
+		assertTrue(requestedIds.isEmpty(), "No relationships should be retrieved.");
+	}
+
+	@DisplayName("Resolve cyclic relationships level by level, reusing the objects on the path.")
+	@Test
+	void testCyclicRelationships() {
+		Map<URI, EntityVO> entities = Map.of(
+				URI.create("urn:ngsi-ld:cyclic-pojo:a"), cyclicEntity("a", "b"),
+				URI.create("urn:ngsi-ld:cyclic-pojo:b"), cyclicEntity("b", "c"),
+				URI.create("urn:ngsi-ld:cyclic-pojo:c"), cyclicEntity("c", "a"));
+		List<List<URI>> requestedIds = new ArrayList<>();
+		EntityVOMapper cyclicMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(entityIds.stream().map(entities::get).toList());
+		});
+
+		MyCyclicPojo pojoA = cyclicMapper.fromEntityVO(cyclicEntity("a", "b"), MyCyclicPojo.class).block();
+
+		assertEquals(URI.create("urn:ngsi-ld:cyclic-pojo:b"), pojoA.getNext().getId(), "The first level should be resolved.");
+		assertEquals(URI.create("urn:ngsi-ld:cyclic-pojo:c"), pojoA.getNext().getNext().getId(), "The second level should be resolved.");
+		assertSame(pojoA, pojoA.getNext().getNext().getNext(), "The cycle should be closed with the root object.");
+		assertEquals(List.of(List.of(URI.create("urn:ngsi-ld:cyclic-pojo:b")), List.of(URI.create("urn:ngsi-ld:cyclic-pojo:c"))), requestedIds,
+				"Every level should be retrieved with a single call, the root entity should not be retrieved again.");
+	}
+
+	@DisplayName("Relationships beyond the max depth should only contain the id.")
+	@Test
+	void testMaxRelationshipDepth() {
+		mappingProperties.setMaxRelationshipDepth(1);
+		List<List<URI>> requestedIds = new ArrayList<>();
+		EntityVOMapper depthMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(List.of(cyclicEntity("b", "c")));
+		});
+
+		MyCyclicPojo pojoA = depthMapper.fromEntityVO(cyclicEntity("a", "b"), MyCyclicPojo.class).block();
+
+		assertEquals(URI.create("urn:ngsi-ld:cyclic-pojo:b"), pojoA.getNext().getId(), "The first level should be resolved.");
+		assertEquals(URI.create("urn:ngsi-ld:cyclic-pojo:c"), pojoA.getNext().getNext().getId(), "The object beyond the max depth should contain the id.");
+		assertNull(pojoA.getNext().getNext().getNext(), "The object beyond the max depth should not be resolved.");
+		assertEquals(List.of(List.of(URI.create("urn:ngsi-ld:cyclic-pojo:b"))), requestedIds, "Only the first level should be retrieved.");
+	}
+
+	@DisplayName("Lazy relationships should only be retrieved on load, all together.")
+	@Test
+	void testLazyRelationships() {
+		URI subEntity1 = URI.create("urn:ngsi-ld:sub-entity:entity-1");
+		URI subEntity2 = URI.create("urn:ngsi-ld:sub-entity:entity-2");
+		URI subEntity3 = URI.create("urn:ngsi-ld:sub-entity:entity-3");
+		List<List<URI>> requestedIds = new ArrayList<>();
+		EntityVOMapper lazyMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entityIds -> {
+			requestedIds.add(entityIds);
+			return Mono.just(entityIds.stream().map(id -> new EntityVO().id(id).type("sub-entity")).toList());
+		});
+
+		EntityVO entityVO = new EntityVO().id(URI.create("urn:ngsi-ld:complex-pojo:the-test-pojo")).type("complex-pojo");
+		entityVO.setAdditionalProperties("sub-entity", new RelationshipVO()._object(subEntity1));
+		RelationshipListVO relationshipListVO = new RelationshipListVO();
+		relationshipListVO.add(new RelationshipVO()._object(subEntity2));
+		relationshipListVO.add(new RelationshipVO()._object(subEntity3));
+		entityVO.setAdditionalProperties("sub-entities", relationshipListVO);
+
+		MyPojoWithLazySubEntities lazyPojo = lazyMapper.fromEntityVO(entityVO, MyPojoWithLazySubEntities.class).block();
+		assertTrue(requestedIds.isEmpty(), "No relationship should be retrieved before loading.");
+		assertEquals(List.of(subEntity2, subEntity3), lazyPojo.getMySubProperties().stream().map(LazyRelationship::getId).toList(), "The ids should be available without loading.");
+
+		assertEquals(new MySubPropertyEntity(subEntity1.toString()), lazyPojo.getMySubProperty().load().block(), "The relationship should be loaded.");
+		assertEquals(new MySubPropertyEntity(subEntity3.toString()), lazyPojo.getMySubProperties().get(1).load().block(), "The relationship should be loaded.");
+		assertEquals(1, requestedIds.size(), "All pending relationships should be retrieved with the first load.");
+		assertEquals(Set.of(subEntity1, subEntity2, subEntity3), Set.copyOf(requestedIds.get(0)), "All pending relationships should be retrieved with the first load.");
+	}
+
+	@DisplayName("Lazy relationships should ignore retrieved entities without id.")
+	@Test
+	void testLazyRelationshipsWithoutId() {
+		URI subEntity1 = URI.create("urn:ngsi-ld:sub-entity:entity-1");
+		EntityVOMapper lazyMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entityIds -> {
+			List<EntityVO> entities = new ArrayList<>();
+			entities.add(new EntityVO().type("sub-entity"));
+			entityIds.stream().map(id -> new EntityVO().id(id).type("sub-entity")).forEach(entities::add);
+			return Mono.just(entities);
+		});
+
+		EntityVO entityVO = new EntityVO().id(URI.create("urn:ngsi-ld:complex-pojo:the-test-pojo")).type("complex-pojo");
+		entityVO.setAdditionalProperties("sub-entity", new RelationshipVO()._object(subEntity1));
+
+		MyPojoWithLazySubEntities lazyPojo = lazyMapper.fromEntityVO(entityVO, MyPojoWithLazySubEntities.class).block();
+		assertEquals(new MySubPropertyEntity(subEntity1.toString()), lazyPojo.getMySubProperty().load().block(), "The relationship should be loaded.");
+	}
+
+	@DisplayName("Properties of the relationship should override the related entity's, without modifying it.")
+	@Test
+	void testRelationshipOverridesWithoutModification() {
+		EntityVO subEntity = new EntityVO().id(URI.create("urn:ngsi-ld:sub-entity:the-sub-entity")).type("sub-entity");
+		subEntity.setAdditionalProperties("name", new PropertyVO().value("entityName"));
+		when(entitiesRepository.getEntities(anyList())).thenReturn(Mono.just(List.of(subEntity)));
+
+		RelationshipVO relationshipVO = new RelationshipVO()._object(subEntity.getId());
+		relationshipVO.setAdditionalProperties("name", new PropertyVO().value("overriddenName"));
+		EntityVO parentEntity = new EntityVO().id(URI.create("urn:ngsi-ld:complex-pojo:the-test-pojo")).type("complex-pojo");
+		parentEntity.setAdditionalProperties("sub-entity", relationshipVO);
+
+		MySubPropertyEntity expectedSubEntity = new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity");
+		expectedSubEntity.setMyName("overriddenName");
+		MyPojoWithSubEntity expectedPojo = new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:the-test-pojo");
+		expectedPojo.setMySubProperty(expectedSubEntity);
+
+		assertEquals(expectedPojo, entityVOMapper.fromEntityVO(parentEntity, MyPojoWithSubEntity.class).block(), "The relationship properties should override the entity's.");
+		assertEquals(Map.of("name", new PropertyVO().value("entityName")), subEntity.getAdditionalProperties(), "The related entity should not be modified.");
+	}
+
 	@DisplayName("Map entity with all supported attribute types.")
 	@Test
 	void testListEntityMapping() throws JsonProcessingException {
@@ -710,6 +947,153 @@ class EntityVOMapperTest {
 		assertThrows(MappingException.class, () -> entityVOMapper.fromEntityVO(entity, MySetterThrowingPojo.class).block(), "If the setter is broken, nothing should be constructed.");
 	}
 
+	@DisplayName("Generated accessors should be used to create the object.")
+	@Test
+	void mapWithGeneratedAccessors() {
+		EntityVO entityVO = new EntityVO().id(URI.create("urn:ngsi-ld:accessors-pojo:entity")).type("accessors-pojo");
+		entityVO.setAdditionalProperties("name", new PropertyVO().value("my-name"));
+
+		MyPojoWithAccessors expectedPojo = new MyPojoWithAccessors("urn:ngsi-ld:accessors-pojo:entity");
+		expectedPojo.setMyName("my-name");
+
+		int invocationsBefore = MyPojoWithAccessors_MappingAccessors.INVOCATIONS.get();
+		assertEquals(expectedPojo, entityVOMapper.fromEntityVO(entityVO, MyPojoWithAccessors.class).block(), "The pojo should have been created through its accessors.");
+		assertEquals(invocationsBefore + 2, MyPojoWithAccessors_MappingAccessors.INVOCATIONS.get(), "The constructor and the setter should have been invoked through the accessors.");
+	}
+
+	@DisplayName("Entities without relationships should be mapped synchronously, without contacting the repository.")
+	@Test
+	void mapSynchronously() {
+		EntitiesRepository unusedRepository = mock(EntitiesRepository.class);
+		when(unusedRepository.getEntities(anyList())).thenReturn(Mono.error(new IllegalStateException("No entities should be retrieved.")));
+		EntityVOMapper syncMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, unusedRepository);
+
+		EntityVO entityVO = new EntityVO().id(URI.create("urn:ngsi-ld:accessors-pojo:entity")).type("accessors-pojo");
+		entityVO.setAdditionalProperties("name", new PropertyVO().value("my-name"));
+
+		MyPojoWithAccessors expectedPojo = new MyPojoWithAccessors("urn:ngsi-ld:accessors-pojo:entity");
+		expectedPojo.setMyName("my-name");
+
+		assertEquals(expectedPojo, syncMapper.fromEntityVOSync(entityVO, MyPojoWithAccessors.class), "The pojo should have been created synchronously.");
+		assertEquals(expectedPojo, syncMapper.fromEntityVO(entityVO, MyPojoWithAccessors.class).block(), "The pojo should have been created without retrieving entities.");
+		assertThrows(MappingException.class, () -> syncMapper.fromEntityVOSync(entityVO, MyPojo.class), "Entities of a different type should not be mapped.");
+	}
+
+	@DisplayName("Property values should be converted to the (generic) type of the setter.")
+	@Test
+	void mapTypedProperties() {
+		EntityVO entityVO = new EntityVO().id(URI.create("urn:ngsi-ld:typed-pojo:entity")).type("typed-pojo");
+		entityVO.setAdditionalProperties("count", new PropertyVO().value(5));
+		entityVO.setAdditionalProperties("ratio", new PropertyVO().value(2));
+		entityVO.setAdditionalProperties("status", new PropertyVO().value("INACTIVE"));
+		entityVO.setAdditionalProperties("time", new PropertyVO().value("2024-01-01T10:00:00Z"));
+		entityVO.setAdditionalProperties("numbers", new PropertyVO().value(List.of("1", 2)));
+
+		MyPojoWithTypedProperties expectedPojo = new MyPojoWithTypedProperties("urn:ngsi-ld:typed-pojo:entity");
+		expectedPojo.setCount(5L);
+		expectedPojo.setRatio(2.0);
+		expectedPojo.setStatus(MyPojoWithTypedProperties.Status.INACTIVE);
+		expectedPojo.setTime(Instant.parse("2024-01-01T10:00:00Z"));
+		expectedPojo.setNumbers(List.of(1, 2));
+
+		assertEquals(expectedPojo, entityVOMapper.fromEntityVO(entityVO, MyPojoWithTypedProperties.class).block(), "All values should be converted to the setter types.");
+	}
+
+	@DisplayName("Values with a codec should be mapped as plain values in both directions.")
+	@Test
+	void mapCodecValues() {
+		ValueCodecRegistry valueCodecs = new ValueCodecRegistry()
+				.register(MyPojoWithCodecValues.Code.class, ValueCodec.ofString(MyPojoWithCodecValues.Code::value, MyPojoWithCodecValues.Code::new));
+		JavaObjectMapper javaObjectMapper = new JavaObjectMapper(mappingProperties, OBJECT_MAPPER, valueCodecs);
+		EntityVOMapper codecMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entitiesRepository, valueCodecs);
+
+		MyPojoWithCodecValues myPojo = new MyPojoWithCodecValues("urn:ngsi-ld:codec-pojo:entity");
+		myPojo.setReference(UUID.fromString("5f0ff5c5-5a1c-4b4d-9d4a-8a8c4e6b3b0e"));
+		myPojo.setDay(LocalDate.of(2024, 1, 1));
+		myPojo.setInterval(Duration.ofMinutes(5));
+		myPojo.setCode(new MyPojoWithCodecValues.Code("A-1"));
+
+		EntityVO entityVO = javaObjectMapper.toEntityVO(myPojo);
+		assertEquals("5f0ff5c5-5a1c-4b4d-9d4a-8a8c4e6b3b0e", ((PropertyVO) entityVO.getAdditionalProperties().get("reference")).getValue(), "The uuid should be a plain value.");
+		assertEquals("2024-01-01", ((PropertyVO) entityVO.getAdditionalProperties().get("day")).getValue(), "The date should be a plain value.");
+		assertEquals("PT5M", ((PropertyVO) entityVO.getAdditionalProperties().get("interval")).getValue(), "The duration should be a plain value.");
+		assertEquals("A-1", ((PropertyVO) entityVO.getAdditionalProperties().get("code")).getValue(), "The registered codec should be used.");
+
+		assertEquals(myPojo, codecMapper.fromEntityVO(entityVO, MyPojoWithCodecValues.class).block(), "The values should be decoded by their codecs.");
+	}
+
+	@DisplayName("Codecs registered after a value was converted should be used for decoding.")
+	@Test
+	void mapLateRegisteredCodecValues() {
+		ValueCodecRegistry valueCodecs = new ValueCodecRegistry();
+		EntityVOMapper codecMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, entitiesRepository, valueCodecs);
+
+		EntityVO objectEntity = new EntityVO().id(URI.create("urn:ngsi-ld:codec-pojo:entity")).type("codec-pojo");
+		objectEntity.setAdditionalProperties("code", new PropertyVO().value(Map.of("value", "a-1")));
+		assertEquals(new MyPojoWithCodecValues.Code("a-1"), codecMapper.fromEntityVO(objectEntity, MyPojoWithCodecValues.class).block().getCode(),
+				"Without a codec, the value should be converted by jackson.");
+
+		valueCodecs.register(MyPojoWithCodecValues.Code.class, ValueCodec.ofString(MyPojoWithCodecValues.Code::value, text -> new MyPojoWithCodecValues.Code(text.toUpperCase())));
+		EntityVO plainEntity = new EntityVO().id(URI.create("urn:ngsi-ld:codec-pojo:entity")).type("codec-pojo");
+		plainEntity.setAdditionalProperties("code", new PropertyVO().value("b-2"));
+		assertEquals(new MyPojoWithCodecValues.Code("B-2"), codecMapper.fromEntityVO(plainEntity, MyPojoWithCodecValues.class).block().getCode(),
+				"The codec registered later should be used.");
+	}
+
+	@DisplayName("Compact lists should be mapped as a single property in both directions.")
+	@Test
+	void mapCompactLists() throws JsonProcessingException {
+		JavaObjectMapper javaObjectMapper = new JavaObjectMapper(mappingProperties, OBJECT_MAPPER);
+
+		MyPojoWithCompactLists myPojo = new MyPojoWithCompactLists("urn:ngsi-ld:compact-pojo:entity");
+		myPojo.setSamples(new double[]{0.5, 1.5, 2.5});
+		myPojo.setCounts(List.of(7));
+
+		EntityVO entityVO = javaObjectMapper.toEntityVO(myPojo);
+		String entityJson = OBJECT_MAPPER.writeValueAsString(entityVO);
+		assertTrue(entityJson.contains("\"samples\":{\"value\":{\"@list\":[0.5,1.5,2.5]}"), "The array should be a single compact property.");
+		assertTrue(entityJson.contains("\"counts\":{\"value\":{\"@list\":[7]}"), "The single-entry list should not be compacted to a scalar.");
+
+		assertEquals(myPojo, entityVOMapper.fromEntityVO(entityVO, MyPojoWithCompactLists.class).block(), "The compact lists should be mapped back.");
+		assertEquals(myPojo, entityVOMapper.fromJson(entityJson, MyPojoWithCompactLists.class).block(), "The compact lists should be read from json.");
+	}
+
+	@DisplayName("Related entities should be retrieved with the attributes of their target class.")
+	@Test
+	void mapWithAttributeProjection() throws JsonProcessingException {
+		assertEquals(List.of("name"), AttributeProjection.forClass(MySubPropertyEntity.class), "The projection should contain the mapped attributes.");
+		assertEquals("name", AttributeProjection.toAttrsParameter(MySubPropertyEntity.class), "The projection should be usable as attrs parameter.");
+		assertNull(AttributeProjection.toAttrsParameter(MyPojoWithUnmappedProperties.class), "Classes with unmapped properties require all attributes.");
+
+		EntityVO subEntity = new EntityVO()
+				.id(URI.create("urn:ngsi-ld:sub-entity:the-sub-entity"))
+				.type("sub-entity");
+		List<List<String>> requestedAttrs = new ArrayList<>();
+		EntitiesRepository projectingRepository = new EntitiesRepository() {
+			@Override
+			public Mono<List<EntityVO>> getEntities(List<URI> entityIds) {
+				requestedAttrs.add(List.of());
+				return Mono.just(List.of(subEntity));
+			}
+
+			@Override
+			public Mono<List<EntityVO>> getEntities(List<URI> entityIds, List<String> attrs) {
+				requestedAttrs.add(attrs);
+				return Mono.just(List.of(subEntity));
+			}
+		};
+		mappingProperties.setProjectAttributes(true);
+		EntityVOMapper projectingMapper = new EntityVOMapper(mappingProperties, OBJECT_MAPPER, projectingRepository);
+
+		String parentEntityString = "{\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\",\"id\":\"urn:ngsi-ld:complex-pojo:the-test-pojo\",\"type\":\"complex-pojo\",\"sub-entity\":{\"object\":\"urn:ngsi-ld:sub-entity:the-sub-entity\",\"type\":\"Relationship\",\"datasetId\":\"urn:ngsi-ld:sub-entity:the-sub-entity\"}}";
+		EntityVO parentEntity = OBJECT_MAPPER.readValue(parentEntityString, EntityVO.class);
+
+		MyPojoWithSubEntity expectedPojo = new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:the-test-pojo");
+		expectedPojo.setMySubProperty(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity"));
+		assertEquals(expectedPojo, projectingMapper.fromEntityVO(parentEntity, MyPojoWithSubEntity.class).block(), "The full pojo should be retrieved.");
+		assertEquals(List.of(List.of("name")), requestedAttrs, "The related entity should be retrieved with the projection of its target class.");
+	}
+
 	@DisplayName("Well known properties should properly be mapped.")
 	@Test
 	void mapWithWellKnown() {
@@ -827,6 +1211,12 @@ class EntityVOMapperTest {
 		assertEquals(expectedPojoWithLocation.getId(), myPojoWithLocation.getId(), "GeoEntities can be mapped to their Java Objects");
 	}
 
+	private EntityVO cyclicEntity(String id, String nextId) {
+		EntityVO entityVO = new EntityVO().id(URI.create("urn:ngsi-ld:cyclic-pojo:" + id)).type("cyclic-pojo");
+		entityVO.setAdditionalProperties("next", new RelationshipVO()._object(URI.create("urn:ngsi-ld:cyclic-pojo:" + nextId)));
+		return entityVO;
+	}
+
 	private MySubscriptionPojo createSubscription() {
 		MySubscriptionPojo myPojo = new MySubscriptionPojo("urn:ngsi-ld:my-pojo:the-test-pojo");
 		myPojo.setQ("eventType=custom");
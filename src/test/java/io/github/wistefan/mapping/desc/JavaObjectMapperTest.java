@@ -1,7 +1,9 @@
 package io.github.wistefan.mapping.desc;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import io.github.wistefan.mapping.*;
@@ -9,19 +11,29 @@ import io.github.wistefan.mapping.desc.pojos.*;
 import io.github.wistefan.mapping.desc.pojos.invalid.*;
 import org.fiware.ngsi.model.AdditionalPropertyVO;
 import org.fiware.ngsi.model.EntityVO;
+import org.fiware.ngsi.model.GeoPropertyVO;
 import org.fiware.ngsi.model.PropertyListVO;
+import org.fiware.ngsi.model.PropertyVO;
+import org.fiware.ngsi.model.RelationshipListVO;
+import org.fiware.ngsi.model.RelationshipVO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import reactor.core.publisher.Flux;
 
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,6 +73,20 @@ class JavaObjectMapperTest {
 				"The pojo should have been translated into a valid entity");
 	}
 
+	@DisplayName("Generated accessors should be used to read the pojo.")
+	@Test
+	void testMappingWithGeneratedAccessors() throws JsonProcessingException {
+		String expectedJson = "{\"@context\":\"https://uri.etsi.org/ngsi-ld/v1/ngsi-ld-core-context.jsonld\",\"id\":\"urn:ngsi-ld:accessors-pojo:the-test-pojo\",\"type\":\"accessors-pojo\",\"name\":{\"value\":\"The test pojo.\",\"type\":\"Property\"}}";
+		MyPojoWithAccessors myPojo = new MyPojoWithAccessors("urn:ngsi-ld:accessors-pojo:the-test-pojo");
+		myPojo.setMyName("The test pojo.");
+
+		int invocationsBefore = MyPojoWithAccessors_MappingAccessors.INVOCATIONS.get();
+		assertEquals(expectedJson, OBJECT_MAPPER.writeValueAsString(javaObjectMapper.toEntityVO(myPojo)),
+				"The pojo should have been translated into a valid entity");
+		assertEquals(invocationsBefore + 3, MyPojoWithAccessors_MappingAccessors.INVOCATIONS.get(),
+				"The id, type and property getters should have been invoked through the accessors.");
+	}
+
 	@DisplayName("Map Pojo with a field that is an object.")
 	@Test
 	void testSubPropertyMapping() throws JsonProcessingException {
@@ -101,6 +127,203 @@ class JavaObjectMapperTest {
 				"The pojo should have been translated into a valid entity");
 	}
 
+	@DisplayName("Property list entries should get datasetIds from the configured strategy.")
+	@Test
+	void testDatasetIdStrategies() {
+		MyPojoWithListOfSubProperty myComplexPojo = new MyPojoWithListOfSubProperty(
+				"urn:ngsi-ld:complex-pojo:the-test-pojo");
+		MySubProperty mySubProperty1 = new MySubProperty();
+		mySubProperty1.setPropertyName("My property 1");
+		MySubProperty mySubProperty2 = new MySubProperty();
+		mySubProperty2.setPropertyName("My property 2");
+		myComplexPojo.setMySubProperties(List.of(mySubProperty1, mySubProperty2));
+
+		MappingProperties indexProperties = new MappingProperties();
+		indexProperties.setDatasetIdStrategy(MappingProperties.DatasetIdStrategyType.INDEX);
+		JavaObjectMapper indexMapper = new JavaObjectMapper(indexProperties, new ObjectMapper());
+		assertEquals(List.of(URI.create("urn:ngsi-ld:dataset:index:0"), URI.create("urn:ngsi-ld:dataset:index:1")),
+				getDatasetIds(indexMapper.toEntityVO(myComplexPojo)), "The datasetIds should be derived from the index.");
+
+		JavaObjectMapper hashMapper = new JavaObjectMapper(new MappingProperties(), new ObjectMapper(), DatasetIdStrategies.contentHash());
+		List<URI> hashIds = getDatasetIds(hashMapper.toEntityVO(myComplexPojo));
+		assertEquals(hashIds, getDatasetIds(hashMapper.toEntityVO(myComplexPojo)), "The same content should get the same datasetIds.");
+		assertNotEquals(hashIds.get(0), hashIds.get(1), "Every entry should have its own datasetId.");
+
+		List<URI> randomIds = getDatasetIds(javaObjectMapper.toEntityVO(myComplexPojo));
+		assertTrue(randomIds.stream().allMatch(id -> id.toString().startsWith("urn:uuid:")), "By default, random uuids should be used.");
+	}
+
+	private static List<URI> getDatasetIds(EntityVO entityVO) {
+		return ((PropertyListVO) entityVO.getAdditionalProperties().get("mySubProperty"))
+				.stream()
+				.map(PropertyVO::getDatasetId)
+				.toList();
+	}
+
+	@DisplayName("Only added, changed and removed attributes should be contained in the delta.")
+	@Test
+	void testDiff() {
+		PropertyListPojo before = new PropertyListPojo("urn:ngsi-ld:list-pojo:the-test-pojo");
+		before.setProperty(subProperty("My property"));
+		before.setRelationShip(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity"));
+		before.setPropertyList(List.of(subProperty("My property 1"), subProperty("My property 2")));
+		before.setRelationshipList(List.of(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:first")));
+
+		PropertyListPojo after = new PropertyListPojo("urn:ngsi-ld:list-pojo:the-test-pojo");
+		after.setProperty(subProperty("My changed property"));
+		after.setPropertyList(List.of(subProperty("My property 1"), subProperty("My property 2")));
+		after.setRelationshipList(List.of(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:first"),
+				new MySubPropertyEntity("urn:ngsi-ld:sub-entity:second")));
+
+		assertTrue(javaObjectMapper.diff(before, before).isEmpty(), "Equal states should not have a delta.");
+
+		EntityDelta entityDelta = javaObjectMapper.diff(before, after);
+		assertEquals(URI.create("urn:ngsi-ld:list-pojo:the-test-pojo"), entityDelta.getEntityId(), "The delta should be for the entity.");
+		assertTrue(entityDelta.getAddedAttributes().isEmpty(), "No attribute should have been added.");
+		assertEquals(Set.of("mySubProperty", "myRelationshipList"), entityDelta.getChangedAttributes().keySet(),
+				"The changed sub-attribute and the extended relationship list should be changed, the list with new datasetIds not.");
+		assertEquals(Set.of("myRelationship"), entityDelta.getRemovedAttributes(), "The relationship should have been removed.");
+		assertEquals(Set.of("mySubProperty", "myRelationshipList"), entityDelta.toPartialAttrUpdates().keySet(),
+				"A partial update should be provided for every changed attribute.");
+		assertEquals(entityDelta.getChangedAttributes(), entityDelta.toUpdateFragment().getAdditionalProperties(),
+				"The update fragment should contain all changed attributes.");
+
+		EntityDelta previousDelta = javaObjectMapper.diff(javaObjectMapper.toEntityVO(after), before);
+		assertEquals(Set.of("myRelationship"), previousDelta.getAddedAttributes().keySet(), "The relationship should have been added.");
+		assertEquals(Set.of("mySubProperty", "myRelationshipList"), previousDelta.getChangedAttributes().keySet(),
+				"The attributes should be changed back.");
+	}
+
+	@DisplayName("Diff against the broker state should only remove attributes mapped by the class.")
+	@Test
+	void testDiffAgainstEntityVO() {
+		PropertyListPojo pojo = new PropertyListPojo("urn:ngsi-ld:list-pojo:the-test-pojo");
+		pojo.setProperty(subProperty("My property"));
+		pojo.setRelationshipList(List.of(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:first"),
+				new MySubPropertyEntity("urn:ngsi-ld:sub-entity:second")));
+
+		EntityVO brokerState = javaObjectMapper.toEntityVO(pojo);
+		brokerState.setAdditionalProperties("foreignAttribute", new PropertyVO().value("owned by someone else"));
+		brokerState.setAdditionalProperties("myRelationship", new RelationshipVO()._object(URI.create("urn:ngsi-ld:sub-entity:the-sub-entity")));
+		EntityDelta entityDelta = javaObjectMapper.diff(brokerState, pojo);
+		assertEquals(Set.of("myRelationship"), entityDelta.getRemovedAttributes(), "Only the mapped attribute should be removed.");
+		assertTrue(entityDelta.getChangedAttributes().isEmpty(), "Nothing should have changed.");
+
+		RelationshipListVO relationshipList = (RelationshipListVO) brokerState.getAdditionalProperties().get("myRelationshipList");
+		relationshipList.get(0).setDatasetId(URI.create("urn:ngsi-ld:dataset:other"));
+		assertEquals(Set.of("myRelationshipList"), javaObjectMapper.diff(brokerState, pojo).getChangedAttributes().keySet(),
+				"Changed datasetIds of relationships should be detected.");
+
+		MyPojoWithUnmappedProperties unmappedPojo = new MyPojoWithUnmappedProperties("urn:ngsi-ld:my-pojo:the-test-pojo");
+		unmappedPojo.setMyName("My name");
+		EntityVO unmappedBrokerState = javaObjectMapper.toEntityVO(unmappedPojo);
+		unmappedBrokerState.setAdditionalProperties("foreignAttribute", new PropertyVO().value("unmapped"));
+		assertEquals(Set.of("foreignAttribute"), javaObjectMapper.diff(unmappedBrokerState, unmappedPojo).getRemovedAttributes(),
+				"Classes receiving unmapped properties should remove every attribute they do not provide.");
+	}
+
+	@DisplayName("Diff against an EntityVO should compare the well-known geo properties.")
+	@Test
+	void testDiffAgainstEntityVOWithLocation() {
+		MyPojoWithWellKnownLocation pojo = new MyPojoWithWellKnownLocation("urn:ngsi-ld:well-known-location-pojo:the-test-pojo");
+		MyLocation location = new MyLocation();
+		location.setCoordinates(new double[]{1.5, 2.5});
+		pojo.setLocation(location);
+
+		// the broker returns the location in its dedicated field
+		EntityVO brokerState = javaObjectMapper.toEntityVO(pojo);
+		brokerState.setLocation((GeoPropertyVO) brokerState.getAdditionalProperties().remove("location"));
+
+		assertTrue(javaObjectMapper.diff(brokerState, pojo).isEmpty(), "An unchanged location should not be reported.");
+	}
+
+	private static MySubProperty subProperty(String name) {
+		MySubProperty mySubProperty = new MySubProperty();
+		mySubProperty.setPropertyName(name);
+		return mySubProperty;
+	}
+
+	@DisplayName("Bulk mapping should preserve the order and report errors per element.")
+	@Test
+	void testToEntityVOs() {
+		List<Object> pojos = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			MyPojo myPojo = new MyPojo("urn:ngsi-ld:my-pojo:pojo-" + i);
+			myPojo.setMyName("Pojo " + i);
+			pojos.add(myPojo);
+		}
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			List<EntityVO> entityVOs = javaObjectMapper.toEntityVOs(pojos, executorService);
+			assertEquals(1000, entityVOs.size(), "All pojos should have been mapped.");
+			for (int i = 0; i < 1000; i++) {
+				assertEquals(URI.create("urn:ngsi-ld:my-pojo:pojo-" + i), entityVOs.get(i).getId(), "The order should be preserved.");
+			}
+
+			pojos.set(500, new MyPojoWithoutId());
+			BulkMappingException bulkMappingException = assertThrows(BulkMappingException.class,
+					() -> javaObjectMapper.toEntityVOs(pojos, executorService), "The failed element should be reported.");
+			assertEquals(Set.of(500), bulkMappingException.getErrors().keySet(), "The error should be reported for the failed element.");
+			assertNull(bulkMappingException.getEntityVOs().get(500), "No result should exist for the failed element.");
+			assertEquals(URI.create("urn:ngsi-ld:my-pojo:pojo-501"), bulkMappingException.getEntityVOs().get(501).getId(),
+					"All other elements should have been mapped.");
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	@DisplayName("Bulk mapping should use the shared caches safely and report null elements per index.")
+	@Test
+	void testToEntityVOsConcurrently() {
+		MappingProperties indexProperties = new MappingProperties();
+		indexProperties.setDatasetIdStrategy(MappingProperties.DatasetIdStrategyType.INDEX);
+		ValueCodecRegistry valueCodecs = new ValueCodecRegistry()
+				.register(MyPojoWithCodecValues.Code.class, ValueCodec.ofString(MyPojoWithCodecValues.Code::value, MyPojoWithCodecValues.Code::new));
+		JavaObjectMapper codecMapper = new JavaObjectMapper(indexProperties, new ObjectMapper(), valueCodecs);
+
+		List<Object> pojos = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			PropertyListPojo listPojo = new PropertyListPojo("urn:ngsi-ld:list-pojo:pojo-" + i);
+			listPojo.setProperty(subProperty("Property " + i));
+			listPojo.setPropertyList(List.of(subProperty("First " + i), subProperty("Second " + i)));
+			listPojo.setRelationShip(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:entity-" + i));
+			listPojo.setRelationshipList(List.of(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:first-" + i),
+					new MySubPropertyEntity("urn:ngsi-ld:sub-entity:second-" + i)));
+			pojos.add(listPojo);
+
+			MyPojoWithCodecValues codecPojo = new MyPojoWithCodecValues("urn:ngsi-ld:codec-pojo:pojo-" + i);
+			codecPojo.setCode(new MyPojoWithCodecValues.Code("code-" + i));
+			codecPojo.setReference(UUID.nameUUIDFromBytes(("pojo-" + i).getBytes()));
+			pojos.add(codecPojo);
+
+			MyPojo myPojo = new MyPojo("urn:ngsi-ld:my-pojo:pojo-" + i);
+			myPojo.setMyName("Pojo " + i);
+			myPojo.setNumbers(List.of(i, i + 1));
+			pojos.add(myPojo);
+		}
+		List<JsonNode> expectedEntities = pojos.stream()
+				.map(pojo -> (JsonNode) OBJECT_MAPPER.valueToTree(codecMapper.toEntityVO(pojo)))
+				.toList();
+		pojos.set(7, null);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			BulkMappingException bulkMappingException = assertThrows(BulkMappingException.class,
+					() -> codecMapper.toEntityVOs(pojos, executorService), "The null element should be reported.");
+			assertEquals(Set.of(7), bulkMappingException.getErrors().keySet(), "Only the null element should fail.");
+			assertInstanceOf(MappingException.class, bulkMappingException.getErrors().get(7), "The null element should be reported as mapping error.");
+			List<EntityVO> entityVOs = bulkMappingException.getEntityVOs();
+			for (int i = 0; i < pojos.size(); i++) {
+				if (i != 7) {
+					assertEquals(expectedEntities.get(i), OBJECT_MAPPER.valueToTree(entityVOs.get(i)),
+							"The parallel mapping should be the same as the sequential one.");
+				}
+			}
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
 	@DisplayName("Map Pojo with a field that is a relationship.")
 	@Test
 	void testSubEntityMapping() throws JsonProcessingException {
@@ -113,6 +336,53 @@ class JavaObjectMapperTest {
 				"The pojo should have been translated into a valid entity");
 	}
 
+	@DisplayName("Write entities directly to json.")
+	@Test
+	void testWriteEntities() throws Exception {
+		MyPojoWithSubProperty pojoWithSubProperty = new MyPojoWithSubProperty("urn:ngsi-ld:complex-pojo:the-test-pojo");
+		MySubProperty mySubProperty = new MySubProperty();
+		mySubProperty.setPropertyName("My property");
+		pojoWithSubProperty.setMySubProperty(mySubProperty);
+		MyPojoWithSubEntity pojoWithSubEntity = new MyPojoWithSubEntity("urn:ngsi-ld:complex-pojo:the-other-pojo");
+		pojoWithSubEntity.setMySubProperty(new MySubPropertyEntity("urn:ngsi-ld:sub-entity:the-sub-entity"));
+
+		JsonNode expectedFirst = OBJECT_MAPPER.valueToTree(javaObjectMapper.toEntityVO(pojoWithSubProperty));
+		JsonNode expectedSecond = OBJECT_MAPPER.valueToTree(javaObjectMapper.toEntityVO(pojoWithSubEntity));
+
+		ByteArrayOutputStream entityStream = new ByteArrayOutputStream();
+		try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(entityStream)) {
+			javaObjectMapper.writeEntity(pojoWithSubProperty, generator);
+		}
+		assertEquals(expectedFirst, OBJECT_MAPPER.readTree(entityStream.toByteArray()), "The same entity should have been written.");
+
+		ByteArrayOutputStream arrayStream = new ByteArrayOutputStream();
+		javaObjectMapper.writeEntities(Flux.just(pojoWithSubProperty, pojoWithSubEntity), arrayStream, false).block();
+		assertEquals(OBJECT_MAPPER.createArrayNode().add(expectedFirst).add(expectedSecond), OBJECT_MAPPER.readTree(arrayStream.toByteArray()),
+				"All entities should have been written as an array.");
+
+		ByteArrayOutputStream ndjsonStream = new ByteArrayOutputStream();
+		javaObjectMapper.writeEntities(Flux.just(pojoWithSubProperty, pojoWithSubEntity), ndjsonStream, true).block();
+		String[] lines = ndjsonStream.toString().split("\n");
+		assertEquals(2, lines.length, "Every entity should have been written to its own line.");
+		assertEquals(expectedFirst, OBJECT_MAPPER.readTree(lines[0]), "The first entity should have been written.");
+		assertEquals(expectedSecond, OBJECT_MAPPER.readTree(lines[1]), "The second entity should have been written.");
+	}
+
+	@DisplayName("A failed stream of entities should not be written as a complete array.")
+	@Test
+	void testWriteEntitiesFailingMidStream() {
+		MyPojo myPojo = new MyPojo("urn:ngsi-ld:my-pojo:the-test-pojo");
+		myPojo.setMyName("The test pojo.");
+
+		ByteArrayOutputStream arrayStream = new ByteArrayOutputStream();
+		assertThrows(UnsupportedOperationException.class,
+				() -> javaObjectMapper.writeEntities(Flux.just(myPojo, "not an entity", myPojo), arrayStream, false).block(),
+				"The failing entity should fail the stream.");
+		assertTrue(arrayStream.size() > 0, "The entities before the failure should have been written.");
+		assertThrows(JsonProcessingException.class, () -> OBJECT_MAPPER.readTree(arrayStream.toByteArray()),
+				"The array should not be closed, to make the truncation detectable.");
+	}
+
 	@DisplayName("Map Pojo with a field that is a relationship with additional attributes.")
 	@Test
 	void testSubEntityEmbedMapping() throws JsonProcessingException {
@@ -315,6 +585,23 @@ class JavaObjectMapperTest {
 				"The correct path mapping should have been returned.");
 	}
 
+	@DisplayName("Cached attribute paths should not be affected by modifications of the callers.")
+	@Test
+	void testGetNGSIAttributePathCaching() {
+		NgsiLdAttribute expectedAttribute = new NgsiLdAttribute(List.of("name"), QueryAttributeType.STRING);
+		List<String> requestPath = new ArrayList<>(List.of("myName"));
+
+		NgsiLdAttribute ngsiLdAttribute = JavaObjectMapper.getNGSIAttributePath(requestPath, MyPojo.class);
+		assertEquals(expectedAttribute, ngsiLdAttribute, "The correct path mapping should have been returned.");
+		ngsiLdAttribute.path().add("modified");
+		requestPath.set(0, "modified");
+
+		assertEquals(expectedAttribute, JavaObjectMapper.getNGSIAttributePath(List.of("myName"), MyPojo.class),
+				"The cached path mapping should not have been modified.");
+		assertNotSame(JavaObjectMapper.getNGSIAttributePath(List.of("myName"), MyPojo.class).path(),
+				JavaObjectMapper.getNGSIAttributePath(List.of("myName"), MyPojo.class).path(), "Every caller should get its own path.");
+	}
+
 	@DisplayName("Map entity with a simple unmapped property.")
 	@Test
 	void testWithUnmappedProperties() throws Exception {
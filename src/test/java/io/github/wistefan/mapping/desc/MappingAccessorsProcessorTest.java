@@ -0,0 +1,187 @@
+package io.github.wistefan.mapping.desc;
+
+import io.github.wistefan.mapping.MappingAccessors;
+import io.github.wistefan.mapping.processor.MappingAccessorsProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappingAccessorsProcessorTest {
+
+	private static final String GENERATED_POJO = """
+			package generated;
+
+			import io.github.wistefan.mapping.annotations.*;
+			import java.net.URI;
+
+			@MappingEnabled(entityType = "generated-pojo")
+			public class GeneratedPojo {
+
+				private final URI id;
+				private String myName;
+				private int count;
+
+				public GeneratedPojo(String id) {
+					this.id = URI.create(id);
+				}
+
+				@EntityId
+				public URI getId() {
+					return id;
+				}
+
+				@EntityType
+				public String getType() {
+					return "generated-pojo";
+				}
+
+				@AttributeGetter(value = AttributeType.PROPERTY, targetName = "name")
+				public String getMyName() {
+					return myName;
+				}
+
+				@AttributeSetter(value = AttributeType.PROPERTY, targetName = "name")
+				public void setMyName(String myName) {
+					this.myName = myName;
+				}
+
+				@AttributeGetter(value = AttributeType.PROPERTY, targetName = "count")
+				public int getCount() {
+					return count;
+				}
+
+				@AttributeSetter(value = AttributeType.PROPERTY, targetName = "count")
+				public void setCount(int count) {
+					this.count = count;
+				}
+
+				@AttributeSetter(value = AttributeType.PROPERTY, targetName = "overloaded")
+				public void setOverloaded(String overloaded) {
+				}
+
+				@AttributeSetter(value = AttributeType.PROPERTY, targetName = "overloaded")
+				public void setOverloaded(Integer overloaded) {
+				}
+
+				@AttributeGetter(value = AttributeType.PROPERTY, targetName = "checked")
+				public String getChecked() throws Exception {
+					return "checked";
+				}
+
+				@MappingEnabled(entityType = "nested-pojo")
+				public static class Nested {
+
+					public Nested(String id) {
+					}
+
+					@AttributeSetter(value = AttributeType.PROPERTY, targetName = "name")
+					public void setMyName(String myName) {
+					}
+				}
+
+				@MappingEnabled(entityType = "hidden-pojo")
+				private static class Hidden {
+
+					public Hidden(String id) {
+					}
+
+					@AttributeSetter(value = AttributeType.PROPERTY, targetName = "name")
+					public void setMyName(String myName) {
+					}
+				}
+			}
+			""";
+
+	@TempDir
+	Path outputDirectory;
+
+	@DisplayName("The processor should generate accessors for all accessible mapping methods.")
+	@Test
+	void generateAccessors() throws Exception {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertTrue(compile("generated.GeneratedPojo", GENERATED_POJO, diagnostics), () -> "The pojo should compile, but was: " + diagnostics.getDiagnostics());
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader())) {
+			Class<?> pojoClass = classLoader.loadClass("generated.GeneratedPojo");
+			MappingAccessors<Object> accessors = loadAccessors(classLoader, "generated.GeneratedPojo_MappingAccessors");
+
+			assertEquals(Set.of("getId", "getType", "getMyName", "getCount"), accessors.getGetters().keySet(), "Getters throwing checked exceptions should be left to reflection.");
+			assertEquals(Set.of("setMyName", "setCount"), accessors.getSetters().keySet(), "Overloaded setters should be left to reflection.");
+
+			Object pojo = accessors.getIdConstructor().orElseThrow().apply("urn:ngsi-ld:generated-pojo:the-pojo");
+			assertInstanceOf(pojoClass, pojo, "The id constructor should create the mapped class.");
+			accessors.getSetters().get("setMyName").accept(pojo, "myName");
+			accessors.getSetters().get("setCount").accept(pojo, 3);
+			assertEquals(URI.create("urn:ngsi-ld:generated-pojo:the-pojo"), accessors.getGetters().get("getId").apply(pojo), "The id should be set by the constructor.");
+			assertEquals("myName", accessors.getGetters().get("getMyName").apply(pojo), "The value should be set and read by the accessors.");
+			assertEquals(3, accessors.getGetters().get("getCount").apply(pojo), "Primitive values should be boxed by the accessors.");
+
+			MappingAccessors<Object> nestedAccessors = loadAccessors(classLoader, "generated.GeneratedPojo$Nested_MappingAccessors");
+			assertEquals(Set.of("setMyName"), nestedAccessors.getSetters().keySet(), "Nested classes should get accessors named after their binary name.");
+			assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("generated.GeneratedPojo$Hidden_MappingAccessors"), "Private classes should not get accessors.");
+		}
+	}
+
+	@DisplayName("The processor should report invalid mapping annotations.")
+	@Test
+	void reportInvalidAnnotations() {
+		String invalidPojo = """
+				package generated;
+
+				import io.github.wistefan.mapping.annotations.*;
+
+				@MappingEnabled(entityType = "invalid-pojo")
+				public class InvalidPojo {
+
+					public InvalidPojo(String id) {
+					}
+
+					@AttributeSetter(value = AttributeType.PROPERTY, targetName = "name")
+					public void setMyName(String myName, String other) {
+					}
+				}
+				""";
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		assertFalse(compile("generated.InvalidPojo", invalidPojo, diagnostics), "Setters with more than one parameter should fail the compilation.");
+		assertTrue(diagnostics.getDiagnostics()
+				.stream()
+				.anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains("only have one parameter")), "The invalid setter should be reported.");
+	}
+
+	/**
+	 * Compile the source with the processor into the output directory.
+	 */
+	private boolean compile(String className, String source, DiagnosticCollector<JavaFileObject> diagnostics) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return source;
+			}
+		};
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+				List.of("-d", outputDirectory.toString(), "-classpath", System.getProperty("java.class.path")),
+				null, List.of(sourceFile));
+		task.setProcessors(List.of(new MappingAccessorsProcessor()));
+		return task.call();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MappingAccessors<Object> loadAccessors(ClassLoader classLoader, String accessorsName) throws ReflectiveOperationException {
+		return (MappingAccessors<Object>) classLoader.loadClass(accessorsName).getDeclaredConstructor().newInstance();
+	}
+}
@@ -0,0 +1,143 @@
+package io.github.wistefan.mapping.desc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.wistefan.mapping.EntityDelta;
+import io.github.wistefan.mapping.JavaObjectMapper;
+import io.github.wistefan.mapping.MappingProperties;
+import io.github.wistefan.mapping.MappingSession;
+import io.github.wistefan.mapping.desc.pojos.MyLocation;
+import io.github.wistefan.mapping.desc.pojos.MyPojo;
+import io.github.wistefan.mapping.desc.pojos.MyPojoWithWellKnownLocation;
+import org.fiware.ngsi.model.EntityVO;
+import org.fiware.ngsi.model.GeoPropertyVO;
+import org.fiware.ngsi.model.PropertyListVO;
+import org.fiware.ngsi.model.PropertyVO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappingSessionTest {
+
+	private final JavaObjectMapper javaObjectMapper = new JavaObjectMapper(new MappingProperties(), new ObjectMapper());
+
+	@DisplayName("Only attributes with a changed fingerprint should be written again.")
+	@Test
+	void onlyChangedAttributes() {
+		MappingSession mappingSession = new MappingSession(javaObjectMapper, 10);
+		MyPojo myPojo = new MyPojo("urn:ngsi-ld:my-pojo:the-test-pojo");
+		myPojo.setMyName("The test pojo.");
+		myPojo.setNumbers(List.of(1, 2, 3));
+
+		EntityDelta firstWrite = mappingSession.changes(myPojo);
+		assertEquals(Set.of("name", "numbers"), firstWrite.getAddedAttributes().keySet(), "Unknown entities should be written completely.");
+
+		assertTrue(mappingSession.changes(myPojo).isEmpty(), "Unchanged entities should not be written again, independent of their datasetIds.");
+
+		myPojo.setMyName("The changed pojo.");
+		EntityDelta changedWrite = mappingSession.changes(myPojo);
+		assertEquals(Set.of("name"), changedWrite.getChangedAttributes().keySet(), "Only the changed attribute should be written.");
+		assertTrue(changedWrite.getAddedAttributes().isEmpty(), "No attribute should be added.");
+
+		myPojo.setNumbers(null);
+		assertEquals(Set.of("numbers"), mappingSession.changes(myPojo).getRemovedAttributes(), "The removed attribute should be reported.");
+	}
+
+	@DisplayName("The state of the least recently used entity should be forgotten.")
+	@Test
+	void evictLeastRecentlyUsed() {
+		MappingSession mappingSession = new MappingSession(javaObjectMapper, 1);
+		MyPojo firstPojo = new MyPojo("urn:ngsi-ld:my-pojo:first");
+		firstPojo.setMyName("First");
+		MyPojo secondPojo = new MyPojo("urn:ngsi-ld:my-pojo:second");
+		secondPojo.setMyName("Second");
+
+		mappingSession.track(javaObjectMapper.toEntityVO(firstPojo));
+		mappingSession.toEntityVO(secondPojo);
+
+		assertEquals(1, mappingSession.size(), "Only one entity should be remembered.");
+		assertEquals(1L, mappingSession.getEvictionCount(), "The eviction should be counted.");
+		assertEquals(Set.of("name"), mappingSession.changes(firstPojo).getAddedAttributes().keySet(),
+				"The forgotten entity should be written completely.");
+	}
+
+	@DisplayName("Tracked entities should only report changes of the mapped attributes, independent of the number representation.")
+	@Test
+	void trackedEntity() {
+		MappingSession mappingSession = new MappingSession(javaObjectMapper, 10);
+		MyPojo myPojo = new MyPojo("urn:ngsi-ld:my-pojo:the-test-pojo");
+		myPojo.setMyName("The test pojo.");
+		myPojo.setNumbers(List.of(1, 2, 3));
+
+		// state as retrieved from the broker, with an attribute owned by someone else
+		EntityVO entityVO = javaObjectMapper.toEntityVO(myPojo);
+		((PropertyListVO) entityVO.getAdditionalProperties().get("numbers"))
+				.forEach(propertyVO -> propertyVO.value(((Number) propertyVO.getValue()).doubleValue()));
+		entityVO.getAdditionalProperties().put("foreign", new PropertyVO().value("foreign"));
+		mappingSession.track(entityVO);
+
+		assertTrue(mappingSession.changes(myPojo).isEmpty(), "Equal numbers and unmapped attributes should not be reported.");
+	}
+
+	@DisplayName("The well-known geo properties of tracked entities should be compared to the mapped ones.")
+	@Test
+	void trackedEntityWithLocation() {
+		MappingSession mappingSession = new MappingSession(javaObjectMapper, 10);
+		MyPojoWithWellKnownLocation myPojo = new MyPojoWithWellKnownLocation("urn:ngsi-ld:well-known-location-pojo:the-test-pojo");
+		MyLocation location = new MyLocation();
+		location.setCoordinates(new double[]{1.5, 2.5});
+		myPojo.setLocation(location);
+
+		// the broker returns the location in its dedicated field
+		EntityVO entityVO = javaObjectMapper.toEntityVO(myPojo);
+		entityVO.setLocation((GeoPropertyVO) entityVO.getAdditionalProperties().remove("location"));
+		mappingSession.track(entityVO);
+
+		assertTrue(mappingSession.changes(myPojo).isEmpty(), "An unchanged location should not be reported.");
+	}
+
+	@DisplayName("Concurrent writes of the same entity should each get the changes to the state before them.")
+	@Test
+	void concurrentChanges() throws Exception {
+		MappingSession mappingSession = new MappingSession(javaObjectMapper, 10);
+		MyPojo myPojo = new MyPojo("urn:ngsi-ld:my-pojo:the-test-pojo");
+		myPojo.setMyName("The test pojo.");
+
+		int threads = 8;
+		for (int round = 0; round < 50; round++) {
+			mappingSession.forgetAll();
+			ExecutorService executorService = Executors.newFixedThreadPool(threads);
+			CountDownLatch startLatch = new CountDownLatch(1);
+			List<Future<EntityDelta>> deltas = new ArrayList<>();
+			try {
+				for (int i = 0; i < threads; i++) {
+					deltas.add(executorService.submit(() -> {
+						startLatch.await();
+						return mappingSession.changes(myPojo);
+					}));
+				}
+				startLatch.countDown();
+				int writes = 0;
+				for (Future<EntityDelta> delta : deltas) {
+					if (!delta.get().isEmpty()) {
+						writes++;
+					}
+				}
+				assertEquals(1, writes, "Only the first write should add the attributes.");
+			} finally {
+				executorService.shutdown();
+			}
+		}
+		assertFalse(mappingSession.changes(myPojo).getChangedAttributes().containsKey("name"), "The state should be remembered.");
+	}
+}
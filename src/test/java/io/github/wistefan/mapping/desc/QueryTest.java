@@ -0,0 +1,47 @@
+package io.github.wistefan.mapping.desc;
+
+import io.github.wistefan.mapping.MappingException;
+import io.github.wistefan.mapping.Query;
+import io.github.wistefan.mapping.desc.pojos.MyMultiTypePojo;
+import io.github.wistefan.mapping.desc.pojos.MyPojo;
+import io.github.wistefan.mapping.desc.pojos.MyPojoWithSubProperty;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryTest {
+
+	@DisplayName("Terms should be translated to the NGSI-LD attributes and formatted by their type.")
+	@Test
+	void buildQuery() {
+		assertEquals("name==\"x\"", Query.of(MyPojo.class).where("myName").eq("x").toQ(),
+				"The attribute name should be translated and the string quoted.");
+		assertEquals("number>3;boolean==true", Query.of(MyMultiTypePojo.class).where("myNumber").gt(3).and("myBoolean").eq(true).toQ(),
+				"Numbers and booleans should not be quoted.");
+		assertEquals("mySubProperty.propertyName!=\"a \\\"quoted\\\" \\\\ name\"",
+				Query.of(MyPojoWithSubProperty.class).where("mySubProperty.propertyName").ne("a \"quoted\" \\ name").toQ(),
+				"Nested attributes should be separated by dots and quotes and backslashes escaped.");
+	}
+
+	@DisplayName("Switching between and and or should group the previous terms.")
+	@Test
+	void groupTerms() {
+		assertEquals("(name==\"x\";numbers>=1)|name==\"y\"",
+				Query.of(MyPojo.class).where("myName").eq("x").and("numbers").ge(1).or("myName").eq("y").toQ(),
+				"The and-terms should be grouped.");
+		assertEquals("name==\"x\"|name==\"y\"|name==\"z\"",
+				Query.of(MyPojo.class).where("myName").eq("x").or("myName").eq("y").or("myName").eq("z").toQ(),
+				"Terms with the same operator should not be grouped.");
+	}
+
+	@DisplayName("Invalid terms should be rejected.")
+	@Test
+	void rejectInvalidTerms() {
+		assertThrows(MappingException.class, () -> Query.of(MyMultiTypePojo.class).where("myNumber").eq("three"),
+				"Number attributes should only be compared to numbers.");
+		assertThrows(MappingException.class, () -> Query.of(MyPojo.class).where("unknown").eq("x"),
+				"Unknown attributes should be rejected.");
+	}
+}
@@ -0,0 +1,35 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import io.github.wistefan.mapping.annotations.RelationshipObject;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.net.URI;
+
+/**
+ * Pojo referencing other pojos of the same type, thus allowing cyclic graphs. Does not implement equals, since that
+ * would not terminate on cycles.
+ */
+@MappingEnabled(entityType = "cyclic-pojo")
+public class MyCyclicPojo {
+
+	@Getter(onMethod = @__({@EntityId, @RelationshipObject}))
+	private URI id;
+
+	@Getter(onMethod = @__({@EntityType}))
+	private String type = "cyclic-pojo";
+
+	public MyCyclicPojo(String id) {
+		this.id = URI.create(id);
+	}
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.RELATIONSHIP, targetName = "next")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.RELATIONSHIP, targetName = "next", targetClass = MyCyclicPojo.class)}))
+	private MyCyclicPojo next;
+}
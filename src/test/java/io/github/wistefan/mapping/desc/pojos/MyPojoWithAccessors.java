@@ -0,0 +1,51 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.net.URI;
+
+/**
+ * Pojo with (hand-written) accessors, as they would be generated by the MappingAccessorsProcessor.
+ */
+@EqualsAndHashCode
+@ToString
+@MappingEnabled(entityType = "accessors-pojo")
+public class MyPojoWithAccessors {
+
+	private static final String ENTITY_TYPE = "accessors-pojo";
+
+	private URI id;
+	private String myName;
+
+	// required constructor
+	public MyPojoWithAccessors(String id) {
+		this.id = URI.create(id);
+	}
+
+	@EntityId
+	public URI getId() {
+		return id;
+	}
+
+	@EntityType
+	public String getType() {
+		return ENTITY_TYPE;
+	}
+
+	@AttributeGetter(value = AttributeType.PROPERTY, targetName = "name")
+	public String getMyName() {
+		return myName;
+	}
+
+	@AttributeSetter(value = AttributeType.PROPERTY, targetName = "name")
+	public void setMyName(String myName) {
+		this.myName = myName;
+	}
+}
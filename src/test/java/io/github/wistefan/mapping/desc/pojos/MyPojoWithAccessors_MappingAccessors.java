@@ -0,0 +1,50 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.MappingAccessors;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Hand-written equivalent of the accessors generated for {@link MyPojoWithAccessors}, counting its invocations.
+ */
+public final class MyPojoWithAccessors_MappingAccessors implements MappingAccessors<MyPojoWithAccessors> {
+
+	public static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+	@Override
+	public Optional<Function<String, MyPojoWithAccessors>> getIdConstructor() {
+		return Optional.of(id -> {
+			INVOCATIONS.incrementAndGet();
+			return new MyPojoWithAccessors(id);
+		});
+	}
+
+	@Override
+	public Map<String, Function<MyPojoWithAccessors, Object>> getGetters() {
+		return Map.of(
+				"getId", o -> {
+					INVOCATIONS.incrementAndGet();
+					return o.getId();
+				},
+				"getType", o -> {
+					INVOCATIONS.incrementAndGet();
+					return o.getType();
+				},
+				"getMyName", o -> {
+					INVOCATIONS.incrementAndGet();
+					return o.getMyName();
+				});
+	}
+
+	@Override
+	public Map<String, BiConsumer<MyPojoWithAccessors, Object>> getSetters() {
+		return Map.of("setMyName", (o, v) -> {
+			INVOCATIONS.incrementAndGet();
+			o.setMyName((String) v);
+		});
+	}
+}
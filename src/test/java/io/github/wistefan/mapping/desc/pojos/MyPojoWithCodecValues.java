@@ -0,0 +1,52 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@EqualsAndHashCode
+@ToString
+@MappingEnabled(entityType = "codec-pojo")
+public class MyPojoWithCodecValues {
+
+	@Getter(onMethod = @__({@EntityId}))
+	private URI id;
+
+	@Getter(onMethod = @__({@EntityType}))
+	private String type = "codec-pojo";
+
+	public MyPojoWithCodecValues(String id) {
+		this.id = URI.create(id);
+	}
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.PROPERTY, targetName = "reference")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "reference")}))
+	private UUID reference;
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.PROPERTY, targetName = "day")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "day")}))
+	private LocalDate day;
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.PROPERTY, targetName = "interval")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "interval")}))
+	private Duration interval;
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.PROPERTY, targetName = "code")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "code")}))
+	private Code code;
+
+	public record Code(String value) {
+	}
+}
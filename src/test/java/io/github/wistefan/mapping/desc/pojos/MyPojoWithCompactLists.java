@@ -0,0 +1,39 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.net.URI;
+import java.util.List;
+
+@EqualsAndHashCode
+@ToString
+@MappingEnabled(entityType = "compact-pojo")
+public class MyPojoWithCompactLists {
+
+	@Getter(onMethod = @__({@EntityId}))
+	private URI id;
+
+	@Getter(onMethod = @__({@EntityType}))
+	private String type = "compact-pojo";
+
+	public MyPojoWithCompactLists(String id) {
+		this.id = URI.create(id);
+	}
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.PROPERTY, targetName = "samples")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "samples")}))
+	private double[] samples;
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.PROPERTY, targetName = "counts", compact = true)}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "counts")}))
+	private List<Integer> counts;
+}
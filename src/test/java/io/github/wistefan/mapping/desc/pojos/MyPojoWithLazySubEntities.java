@@ -0,0 +1,38 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.LazyRelationship;
+import io.github.wistefan.mapping.annotations.AttributeGetter;
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.net.URI;
+import java.util.List;
+
+@EqualsAndHashCode
+@MappingEnabled(entityType = "complex-pojo")
+public class MyPojoWithLazySubEntities {
+
+	@Getter(onMethod = @__({@EntityId}))
+	private URI id;
+
+	@Getter(onMethod = @__({@EntityType}))
+	private String type = "complex-pojo";
+
+	public MyPojoWithLazySubEntities(String id) {
+		this.id = URI.create(id);
+	}
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.RELATIONSHIP, targetName = "sub-entity")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.RELATIONSHIP, targetName = "sub-entity", targetClass = MySubPropertyEntity.class)}))
+	private LazyRelationship<MySubPropertyEntity> mySubProperty;
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.RELATIONSHIP_LIST, targetName = "sub-entities")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.RELATIONSHIP_LIST, targetName = "sub-entities", targetClass = MySubPropertyEntity.class, lazy = true)}))
+	private List<LazyRelationship<MySubPropertyEntity>> mySubProperties;
+}
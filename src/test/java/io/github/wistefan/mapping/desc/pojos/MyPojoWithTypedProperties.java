@@ -0,0 +1,51 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.annotations.AttributeSetter;
+import io.github.wistefan.mapping.annotations.AttributeType;
+import io.github.wistefan.mapping.annotations.EntityId;
+import io.github.wistefan.mapping.annotations.EntityType;
+import io.github.wistefan.mapping.annotations.MappingEnabled;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+
+@EqualsAndHashCode
+@ToString
+@MappingEnabled(entityType = "typed-pojo")
+public class MyPojoWithTypedProperties {
+
+	@Getter(onMethod = @__({@EntityId}))
+	private URI id;
+
+	@Getter(onMethod = @__({@EntityType}))
+	private String type = "typed-pojo";
+
+	public MyPojoWithTypedProperties(String id) {
+		this.id = URI.create(id);
+	}
+
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "count")}))
+	private long count;
+
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "ratio")}))
+	private Double ratio;
+
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "status")}))
+	private Status status;
+
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "time")}))
+	private Instant time;
+
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.PROPERTY, targetName = "numbers")}))
+	private List<Integer> numbers;
+
+	public enum Status {
+		ACTIVE,
+		INACTIVE
+	}
+}
@@ -0,0 +1,25 @@
+package io.github.wistefan.mapping.desc.pojos;
+
+import io.github.wistefan.mapping.annotations.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.net.URI;
+
+@MappingEnabled(entityType = "well-known-location-pojo")
+public class MyPojoWithWellKnownLocation {
+
+	@Getter(onMethod = @__({@EntityId}))
+	private URI id;
+
+	@Getter(onMethod = @__({@EntityType}))
+	private String type = "well-known-location-pojo";
+
+	public MyPojoWithWellKnownLocation(String id) {
+		this.id = URI.create(id);
+	}
+
+	@Getter(onMethod = @__({@AttributeGetter(value = AttributeType.GEO_PROPERTY, targetName = "location")}))
+	@Setter(onMethod = @__({@AttributeSetter(value = AttributeType.GEO_PROPERTY, targetName = "location")}))
+	private MyLocation location;
+}